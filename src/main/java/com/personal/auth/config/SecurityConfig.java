@@ -2,10 +2,16 @@ package com.personal.auth.config;
 
 import com.personal.auth.filter.JwtAuthenticationFilter;
 import com.personal.auth.util.JwtUtil;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -14,7 +20,9 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 
 import java.util.List;
 
@@ -34,6 +42,12 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    /**
+     * 允许免登录抓取 /actuator/prometheus 的地址（IP或CIDR，逗号分隔）
+     */
+    @Value("${app.metrics.prometheus.allowed-ips:127.0.0.1,::1}")
+    private List<String> prometheusAllowedIps;
+
     /**
      * 密码编码器
      *
@@ -56,6 +70,21 @@ public class SecurityConfig {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    /**
+     * 按远端地址放行Prometheus抓取
+     *
+     * @return 授权管理器
+     */
+    private AuthorizationManager<RequestAuthorizationContext> prometheusScraperAccess() {
+        List<IpAddressMatcher> matchers = prometheusAllowedIps.stream()
+                .map(String::trim)
+                .filter(ip -> !ip.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        return (authentication, context) -> new AuthorizationDecision(
+                matchers.stream().anyMatch(matcher -> matcher.matches(context.getRequest())));
+    }
+
     /**
      * 安全过滤器链
      *
@@ -88,6 +117,13 @@ public class SecurityConfig {
                         .requestMatchers("/api/init/**").permitAll()
                         .requestMatchers("/api/version").permitAll()
                         .requestMatchers("/api/health").permitAll()
+                        // 健康检查
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        // Prometheus抓取：已登录，或来自配置的抓取地址（按连接的远端地址判断，不信任转发头）
+                        .requestMatchers("/actuator/prometheus").access(AuthorizationManagers.anyOf(
+                                AuthenticatedAuthorizationManager.authenticated(), prometheusScraperAccess()))
+                        // 异步结果（AI网关的DeferredResult/SSE）回派发时，初始请求已通过认证
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // 其他接口需要认证
                         .anyRequest().authenticated()
                 )
@@ -59,6 +59,96 @@ public class InitController {
 
             jdbcTemplate.execute(createTableSql);
 
+            // 创建AI Token用量台账表
+            String createTokenUsageSql = """
+                CREATE TABLE IF NOT EXISTS ai_token_usage (
+                    id BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+                    usage_date DATE NOT NULL COMMENT '统计日期',
+                    platform_code VARCHAR(32) NOT NULL COMMENT '平台代码',
+                    model VARCHAR(100) NOT NULL DEFAULT '' COMMENT '模型名称',
+                    api_key_masked VARCHAR(32) NOT NULL COMMENT '掩码后的API Key',
+                    call_count BIGINT NOT NULL DEFAULT 0 COMMENT '调用次数',
+                    success_count BIGINT NOT NULL DEFAULT 0 COMMENT '成功次数',
+                    prompt_tokens BIGINT NOT NULL DEFAULT 0 COMMENT '提示词Token数',
+                    completion_tokens BIGINT NOT NULL DEFAULT 0 COMMENT '生成Token数',
+                    total_tokens BIGINT NOT NULL DEFAULT 0 COMMENT '总Token数',
+                    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+                    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+                    PRIMARY KEY (id),
+                    UNIQUE KEY uk_usage (usage_date, platform_code, model, api_key_masked),
+                    KEY idx_platform_date (platform_code, usage_date)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='AI Token用量台账'
+                """;
+
+            jdbcTemplate.execute(createTokenUsageSql);
+
+            // 创建错误指纹表
+            String createErrorFingerprintSql = """
+                CREATE TABLE IF NOT EXISTS error_fingerprint (
+                    id BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+                    fingerprint CHAR(32) NOT NULL COMMENT '错误指纹',
+                    log_type VARCHAR(32) DEFAULT NULL COMMENT '日志类型',
+                    platform_code VARCHAR(32) DEFAULT NULL COMMENT '平台代码',
+                    task_code VARCHAR(64) DEFAULT NULL COMMENT '任务代码',
+                    normalized_message VARCHAR(1000) NOT NULL COMMENT '规范化后的错误信息',
+                    sample_message TEXT COMMENT '样例错误信息',
+                    last_log_id BIGINT DEFAULT NULL COMMENT '最近一次出现的日志ID',
+                    occurrence_count BIGINT NOT NULL DEFAULT 0 COMMENT '出现次数',
+                    first_seen DATETIME NOT NULL COMMENT '首次出现时间',
+                    last_seen DATETIME NOT NULL COMMENT '最近出现时间',
+                    PRIMARY KEY (id),
+                    UNIQUE KEY uk_fingerprint (fingerprint),
+                    KEY idx_last_seen (last_seen)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='错误指纹聚合表'
+                """;
+
+            jdbcTemplate.execute(createErrorFingerprintSql);
+
+            // 创建任务锁表
+            String createTaskLockSql = """
+                CREATE TABLE IF NOT EXISTS task_lock (
+                    lock_name VARCHAR(64) NOT NULL COMMENT '锁名称（任务代码）',
+                    locked_by VARCHAR(128) NOT NULL COMMENT '持有者节点ID',
+                    locked_at DATETIME(3) NOT NULL COMMENT '加锁时间',
+                    lock_until DATETIME(3) NOT NULL COMMENT '租约到期时间',
+                    PRIMARY KEY (lock_name)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='定时任务锁（多节点调度）'
+                """;
+
+            jdbcTemplate.execute(createTaskLockSql);
+
+            // 创建调度节点表
+            String createSchedulerNodeSql = """
+                CREATE TABLE IF NOT EXISTS scheduler_node (
+                    node_id VARCHAR(128) NOT NULL COMMENT '节点ID',
+                    host VARCHAR(128) DEFAULT NULL COMMENT '主机名',
+                    started_at DATETIME(3) NOT NULL COMMENT '节点启动时间',
+                    last_heartbeat DATETIME(3) NOT NULL COMMENT '最近心跳时间',
+                    PRIMARY KEY (node_id),
+                    KEY idx_last_heartbeat (last_heartbeat)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='调度节点心跳（分片调度）'
+                """;
+
+            jdbcTemplate.execute(createSchedulerNodeSql);
+
+            // 创建任务执行记录表
+            String createTaskExecutionSql = """
+                CREATE TABLE IF NOT EXISTS task_execution (
+                    id BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+                    task_code VARCHAR(64) NOT NULL COMMENT '任务代码',
+                    platform_code VARCHAR(32) DEFAULT NULL COMMENT '平台代码',
+                    started_at DATETIME(3) NOT NULL COMMENT '开始时间',
+                    duration_ms INT NOT NULL COMMENT '耗时（毫秒）',
+                    status VARCHAR(16) NOT NULL COMMENT '执行状态',
+                    key_index INT DEFAULT NULL COMMENT '使用的API Key序号',
+                    total_tokens INT DEFAULT NULL COMMENT '消耗Token总数',
+                    PRIMARY KEY (id),
+                    KEY idx_started_at_task (started_at, task_code)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='任务执行记录'
+                """;
+
+            jdbcTemplate.execute(createTaskExecutionSql);
+
             result.put("success", true);
             result.put("message", "数据库表创建成功");
         } catch (Exception e) {
@@ -27,6 +27,11 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * 认证成功后写入请求属性的用户ID（SecurityContext在请求结束时会被清除，访问日志从这里读取）
+     */
+    public static final String USER_ID_ATTRIBUTE = "auth.userId";
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -85,6 +90,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                     // 设置到 Security Context
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    request.setAttribute(USER_ID_ATTRIBUTE, userId);
                     log.info("JWT 认证成功: userId={}, username={}", userId, username);
                 } else {
                     log.warn("JWT Token 已过期: {}, 请求URI: {}", username, requestURI);
@@ -0,0 +1,38 @@
+package com.personal.common.util;
+
+/**
+ * 统计窗口参数解析
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public final class TimeWindowUtil {
+
+    private TimeWindowUtil() {
+    }
+
+    /**
+     * 解析 30s / 5m / 1h / 7d 格式的窗口
+     *
+     * @return 窗口毫秒数
+     * @throws IllegalArgumentException 格式错误
+     */
+    public static long parseMillis(String window) {
+        String value = window.trim().toLowerCase();
+        if (value.length() < 2) {
+            throw new IllegalArgumentException("窗口格式错误：" + window);
+        }
+        long unit = switch (value.charAt(value.length() - 1)) {
+            case 's' -> 1000L;
+            case 'm' -> 60_000L;
+            case 'h' -> 3_600_000L;
+            case 'd' -> 86_400_000L;
+            default -> throw new IllegalArgumentException("窗口格式错误：" + window + "，示例：30s、5m、1h、7d");
+        };
+        try {
+            return Long.parseLong(value.substring(0, value.length() - 1)) * unit;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("窗口格式错误：" + window);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.personal.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * AI平台HTTP客户端配置
+ * 所有AI平台共用一个基于Reactor Netty的WebClient：连接池按目标主机分别维护，
+ * 设置连接/响应超时、空闲连接回收和gzip压缩，避免某个平台挂起时无限期占用调用线程。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Configuration
+@Slf4j
+public class AIWebClientConfig {
+
+    @Value("${ai.http.connect-timeout-ms:5000}")
+    private int connectTimeout;
+
+    @Value("${ai.http.read-timeout-ms:30000}")
+    private long readTimeout;
+
+    @Value("${ai.http.max-connections-per-host:50}")
+    private int maxConnections;
+
+    @Value("${ai.http.pending-acquire-timeout-ms:10000}")
+    private long pendingAcquireTimeout;
+
+    @Value("${ai.http.max-idle-time-ms:30000}")
+    private long maxIdleTime;
+
+    @Value("${ai.http.max-life-time-ms:300000}")
+    private long maxLifeTime;
+
+    @Value("${ai.http.max-in-memory-size:10485760}")
+    private int maxInMemorySize;
+
+    /**
+     * AI平台连接池（Reactor Netty按远程地址分别建池，maxConnections为单个主机的上限）
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider aiConnectionProvider() {
+        return ConnectionProvider.builder("ai-platforms")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeout))
+                .maxIdleTime(Duration.ofMillis(maxIdleTime))
+                .maxLifeTime(Duration.ofMillis(maxLifeTime))
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient aiWebClient(WebClient.Builder webClientBuilder,
+                                 @Qualifier("aiConnectionProvider") ConnectionProvider aiConnectionProvider) {
+        log.info("初始化AI平台WebClient: connect_timeout={}ms, read_timeout={}ms, max_connections_per_host={}",
+                connectTimeout, readTimeout, maxConnections);
+
+        HttpClient httpClient = HttpClient.create(aiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(readTimeout))
+                .keepAlive(true)
+                .compress(true);
+
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +13,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
@@ -39,20 +41,38 @@ public class PythonServiceConfig {
     @Value("${python.service.max.in.memory.size:10485760}")
     private int maxInMemorySize;
 
+    @Value("${python.service.max.connections:50}")
+    private int maxConnections;
+
+    /**
+     * Python服务连接池，开启连接池指标（reactor.netty.connection.provider.*）
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider pythonConnectionProvider() {
+        return ConnectionProvider.builder("python-service")
+                .maxConnections(maxConnections)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * 使用Spring Boot自动配置的WebClient.Builder，自动接入http.client.requests等指标
+     */
     @Bean
-    public WebClient pythonWebClient() {
+    public WebClient pythonWebClient(WebClient.Builder webClientBuilder,
+                                     @Qualifier("pythonConnectionProvider") ConnectionProvider pythonConnectionProvider) {
         log.info("初始化Python WebClient: base_url={}, timeout={}ms, connection_timeout={}ms",
                 baseUrl, timeout, connectionTimeout);
 
         // 配置HttpClient，设置超时时间
-        HttpClient httpClient = HttpClient.create()
+        HttpClient httpClient = HttpClient.create(pythonConnectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout)
                 .responseTimeout(Duration.ofMillis(timeout))
                 .doOnConnected(conn -> conn
                         .addHandlerLast(new ReadTimeoutHandler(timeout, TimeUnit.MILLISECONDS))
                         .addHandlerLast(new WriteTimeoutHandler(timeout, TimeUnit.MILLISECONDS)));
 
-        return WebClient.builder()
+        return webClientBuilder
                 .baseUrl(baseUrl)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
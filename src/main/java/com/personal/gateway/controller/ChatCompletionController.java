@@ -0,0 +1,38 @@
+package com.personal.gateway.controller;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.personal.auth.filter.JwtAuthenticationFilter;
+import com.personal.gateway.service.ChatCompletionProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * OpenAI兼容的AI网关 Controller
+ * 客户端以OpenAI SDK访问，base_url 指向 /v1，api_key 使用登录获得的JWT。
+ * 响应保持OpenAI格式，不使用统一的 code/message/data 包装。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@RestController
+@RequestMapping("/v1")
+public class ChatCompletionController {
+
+    @Autowired
+    private ChatCompletionProxy chatCompletionProxy;
+
+    /**
+     * 对话补全，stream=true 时以SSE逐个事件返回
+     */
+    @PostMapping("/chat/completions")
+    public DeferredResult<Object> chatCompletions(@RequestBody ObjectNode request,
+                                                  @RequestAttribute(name = JwtAuthenticationFilter.USER_ID_ATTRIBUTE,
+                                                          required = false) Long userId) {
+        return chatCompletionProxy.proxy(request, userId);
+    }
+}
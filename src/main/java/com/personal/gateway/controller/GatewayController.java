@@ -0,0 +1,31 @@
+package com.personal.gateway.controller;
+
+import com.personal.gateway.service.ApiKeyPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * AI网关管理 Controller
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@RestController
+@RequestMapping("/api/gateway")
+public class GatewayController {
+
+    @Autowired
+    private ApiKeyPool keyPool;
+
+    /**
+     * 各Key的并发占用和累计请求数
+     */
+    @GetMapping("/key-usage")
+    public Map<String, Object> getKeyUsage() {
+        return Map.of("code", 200, "message", "success", "data", keyPool.getUsage());
+    }
+}
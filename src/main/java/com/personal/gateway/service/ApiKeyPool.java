@@ -0,0 +1,186 @@
+package com.personal.gateway.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.personal.system.config.service.SystemConfigService;
+import com.personal.task.service.health.ApiKeyHealthRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 网关API Key池
+ * 使用保活任务维护的同一批Key（系统配置 ai.{platform}.keys）。每个Key有独立的并发上限（信号量），
+ * 选择时跳过熔断中的Key，在剩余并发最多（负载最低）的Key中选择；负载相同时轮换起点，避免总落在第一个Key上。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class ApiKeyPool {
+
+    @Value("${app.gateway.max-concurrency-per-key:4}")
+    private int maxConcurrencyPerKey;
+
+    @Value("${app.gateway.keys-cache-seconds:30}")
+    private long keysCacheSeconds;
+
+    @Autowired
+    private SystemConfigService configService;
+
+    @Autowired
+    private ApiKeyHealthRegistry keyHealthRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 平台代码 -> Key列表，短时间缓存，避免每个请求都查询系统配置
+     */
+    private LoadingCache<String, List<String>> platformKeys;
+
+    /**
+     * 平台:Key哈希 -> 并发槽位
+     */
+    private final Map<String, KeySlot> slots = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        this.platformKeys = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(keysCacheSeconds))
+                .build(this::loadKeys);
+    }
+
+    private List<String> loadKeys(String platformCode) {
+        String keysJson = configService.getConfigValue("ai." + platformCode + ".keys", "[]");
+        try {
+            List<String> keys = objectMapper.readValue(keysJson, new TypeReference<List<String>>() {});
+            return keys != null ? List.copyOf(keys) : List.of();
+        } catch (Exception e) {
+            log.error("解析 {} 平台API Keys失败：{}", platformCode, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * 为一次请求占用一个Key
+     *
+     * @return 占用的Key，所有Key都熔断或并发已满时返回null
+     */
+    public KeyLease acquire(String platformCode) {
+        List<String> keys = platformKeys.get(platformCode);
+        if (keys.isEmpty()) {
+            return null;
+        }
+        int start = Math.floorMod(cursors.computeIfAbsent(platformCode, k -> new AtomicInteger()).getAndIncrement(),
+                keys.size());
+        List<KeySlot> candidates = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            String apiKey = keys.get((start + i) % keys.size());
+            candidates.add(slots.computeIfAbsent(id(platformCode, apiKey), k -> new KeySlot(platformCode, apiKey)));
+        }
+        // 稳定排序：剩余并发多的在前，相同时保持轮换顺序
+        candidates.sort(Comparator.comparingInt((KeySlot slot) -> slot.permits.availablePermits()).reversed());
+
+        for (KeySlot slot : candidates) {
+            if (!slot.permits.tryAcquire()) {
+                continue;
+            }
+            // 先占用并发再检查熔断：半开状态只放行一次，检查通过后必须真正发出请求
+            if (!keyHealthRegistry.allowRequest(platformCode, slot.apiKey)) {
+                slot.permits.release();
+                continue;
+            }
+            slot.requests.increment();
+            return new KeyLease(slot);
+        }
+        return null;
+    }
+
+    /**
+     * 各Key的并发占用情况（只展示Key哈希）
+     */
+    public List<Map<String, Object>> getUsage() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        slots.values().stream()
+                .sorted(Comparator.comparing((KeySlot slot) -> slot.platformCode).thenComparing(slot -> slot.keyHash))
+                .forEach(slot -> {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("platform", slot.platformCode);
+                    item.put("keyHash", slot.keyHash);
+                    item.put("inFlight", maxConcurrencyPerKey - slot.permits.availablePermits());
+                    item.put("maxConcurrency", maxConcurrencyPerKey);
+                    item.put("totalRequests", slot.requests.sum());
+                    result.add(item);
+                });
+        return result;
+    }
+
+    private static String id(String platformCode, String apiKey) {
+        return platformCode + ":" + ApiKeyHealthRegistry.hash(apiKey);
+    }
+
+    /**
+     * 单个Key的并发槽位
+     */
+    private final class KeySlot {
+
+        private final String platformCode;
+        private final String apiKey;
+        private final String keyHash;
+        private final Semaphore permits = new Semaphore(maxConcurrencyPerKey);
+        private final LongAdder requests = new LongAdder();
+
+        KeySlot(String platformCode, String apiKey) {
+            this.platformCode = platformCode;
+            this.apiKey = apiKey;
+            this.keyHash = ApiKeyHealthRegistry.hash(apiKey);
+        }
+    }
+
+    /**
+     * 一次请求占用的Key，请求结束时必须释放（重复释放无影响）
+     */
+    public static final class KeyLease {
+
+        private final KeySlot slot;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private KeyLease(KeySlot slot) {
+            this.slot = slot;
+        }
+
+        public String getPlatformCode() {
+            return slot.platformCode;
+        }
+
+        public String getApiKey() {
+            return slot.apiKey;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                slot.permits.release();
+            }
+        }
+    }
+}
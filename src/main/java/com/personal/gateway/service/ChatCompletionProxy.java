@@ -0,0 +1,355 @@
+package com.personal.gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.personal.gateway.service.GatewayCallRecorder.GatewayCall;
+import com.personal.task.service.executor.ai.AIPlatformFactory;
+import com.personal.task.service.executor.ai.AIPlatformService;
+import com.personal.task.service.health.ApiKeyActivityTracker;
+import com.personal.task.service.health.ApiKeyHealthRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpenAI兼容的对话补全转发
+ * 按模型名路由到平台，从Key池中选择负载最低的健康Key，转发原始请求体（仅替换模型名）。
+ * 非流式请求整体返回上游响应；流式请求收到上游第一个事件后才开始响应，之后逐个事件转发，不缓冲整个响应。
+ * 转发结果计入Key健康状态（熔断器）和真实调用活动（保活会跳过近期有真实调用的Key），每次调用写一条网关日志（含Token用量）。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Service
+public class ChatCompletionProxy {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    /**
+     * 等待上游响应（流式为第一个事件）的超时
+     */
+    @Value("${app.gateway.request-timeout-ms:120000}")
+    private long requestTimeoutMs;
+
+    /**
+     * 流式响应的总时长上限
+     */
+    @Value("${app.gateway.stream-timeout-ms:600000}")
+    private long streamTimeoutMs;
+
+    @Autowired
+    @Qualifier("aiWebClient")
+    private WebClient webClient;
+
+    @Autowired
+    private ModelRouter modelRouter;
+
+    @Autowired
+    private ApiKeyPool keyPool;
+
+    @Autowired
+    private AIPlatformFactory platformFactory;
+
+    @Autowired
+    private ApiKeyHealthRegistry keyHealthRegistry;
+
+    @Autowired
+    private ApiKeyActivityTracker activityTracker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GatewayCallRecorder callRecorder;
+
+    /**
+     * 转发一次对话补全请求
+     *
+     * @param request OpenAI格式的请求体
+     * @param userId 调用用户
+     * @return 非流式为 ResponseEntity；流式为 SseEmitter（上游在第一个事件前出错时为 ResponseEntity）
+     */
+    public DeferredResult<Object> proxy(ObjectNode request, Long userId) {
+        long startNanos = System.nanoTime();
+        DeferredResult<Object> result = new DeferredResult<>(requestTimeoutMs);
+        String model = request.path("model").asText("");
+        boolean stream = request.path("stream").asBoolean(false);
+        if (model.isBlank()) {
+            reject(result, new GatewayCall(null, model, null, stream, userId, startNanos),
+                    HttpStatus.BAD_REQUEST, "invalid_request_error", "model is required");
+            return result;
+        }
+        ModelRouter.Route route = modelRouter.route(model);
+        if (route == null) {
+            reject(result, new GatewayCall(null, model, null, stream, userId, startNanos),
+                    HttpStatus.NOT_FOUND, "model_not_found", "no platform routes model " + model);
+            return result;
+        }
+        ApiKeyPool.KeyLease lease = keyPool.acquire(route.platformCode());
+        if (lease == null) {
+            reject(result, new GatewayCall(route.platformCode(), route.upstreamModel(), null, stream, userId, startNanos),
+                    HttpStatus.TOO_MANY_REQUESTS, "rate_limit_exceeded",
+                    "no available key for platform " + route.platformCode());
+            return result;
+        }
+
+        request.put("model", route.upstreamModel());
+        AIPlatformService platform = platformFactory.getService(route.platformCode());
+        GatewayCall call = new GatewayCall(route.platformCode(), route.upstreamModel(),
+                platform.maskApiKey(lease.getApiKey()), stream, userId, startNanos);
+        String url = platform.getChatCompletionsUrl();
+        Disposable.Swap upstream = Disposables.swap();
+        result.onTimeout(() -> {
+            upstream.dispose();
+            lease.release();
+            callRecorder.record(call, HttpStatus.GATEWAY_TIMEOUT.value(), "upstream did not respond in time", null);
+            result.setErrorResult(error(HttpStatus.GATEWAY_TIMEOUT, "timeout", "upstream did not respond in time"));
+        });
+
+        if (stream) {
+            upstream.update(relayStream(url, request, call, lease, result, upstream));
+        } else {
+            upstream.update(forward(url, request, call, lease, result));
+        }
+        return result;
+    }
+
+    /**
+     * 转发前就拒绝的请求：没有分配Key，只记录网关日志，不计入Key健康状态
+     */
+    private void reject(DeferredResult<Object> result, GatewayCall call, HttpStatus status, String type, String message) {
+        callRecorder.record(call, status.value(), message, null);
+        result.setResult(error(status, type, message));
+    }
+
+    /**
+     * 非流式：等待完整响应后按上游状态码返回
+     */
+    private Disposable forward(String url, ObjectNode request, GatewayCall call, ApiKeyPool.KeyLease lease,
+                               DeferredResult<Object> result) {
+        return webClient.post()
+                .uri(url)
+                .headers(headers -> headers.setBearerAuth(lease.getApiKey()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchangeToMono(response -> response.toEntity(String.class))
+                .doFinally(signal -> lease.release())
+                .subscribe(entity -> {
+                    int status = entity.getStatusCode().value();
+                    boolean success = entity.getStatusCode().is2xxSuccessful();
+                    recordOutcome(call, lease, status, success ? null : entity.getBody(),
+                            success ? callRecorder.usageOf(entity.getBody()) : null);
+                    result.setResult(ResponseEntity.status(status)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(entity.getBody()));
+                }, e -> {
+                    recordOutcome(call, lease, 0, e.getMessage(), null);
+                    result.setResult(error(HttpStatus.BAD_GATEWAY, "upstream_error", e.getMessage()));
+                });
+    }
+
+    /**
+     * 流式：逐个转发上游SSE事件
+     * 事件在有界弹性线程上写出，避免阻塞式的Servlet输出占用Netty事件循环线程
+     */
+    private Disposable relayStream(String url, ObjectNode request, GatewayCall call, ApiKeyPool.KeyLease lease,
+                                   DeferredResult<Object> result, Disposable upstream) {
+        StreamRelay relay = new StreamRelay(call, lease, result, upstream);
+        return webClient.post()
+                .uri(url)
+                .headers(headers -> headers.setBearerAuth(lease.getApiKey()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .publishOn(Schedulers.boundedElastic())
+                .doFinally(signal -> lease.release())
+                .subscribe(relay::send, relay::fail, relay::complete);
+    }
+
+    /**
+     * 记录转发结果：成功计为Key的真实调用；401/403/429/5xx和网络错误计入熔断器；
+     * 其他4xx是请求本身的问题，说明Key可用，按成功计入熔断器但不算真实调用。
+     * 网络错误（status=0）在网关日志中记为502，与返回给客户端的状态码一致
+     */
+    private void recordOutcome(GatewayCall call, ApiKeyPool.KeyLease lease, int status, String error, JsonNode usage) {
+        String platformCode = lease.getPlatformCode();
+        boolean success = status >= 200 && status < 300;
+        if (success) {
+            keyHealthRegistry.recordSuccess(platformCode, lease.getApiKey());
+            activityTracker.recordUse(lease.getApiKey());
+        } else if (status == 0 || status == 401 || status == 403 || status == 429 || status >= 500) {
+            keyHealthRegistry.recordFailure(platformCode, lease.getApiKey(), status, error);
+            log.warn("AI网关转发到 {} 失败，状态码：{}，错误：{}", platformCode, status, error);
+        } else {
+            keyHealthRegistry.recordSuccess(platformCode, lease.getApiKey());
+        }
+        Timer.builder("gateway.chat.latency")
+                .description("AI网关对话补全转发耗时")
+                .tag("platform", platformCode)
+                .tag("stream", String.valueOf(call.stream()))
+                .tag("status", status == 0 ? "error" : String.valueOf(status))
+                .register(meterRegistry)
+                .record(System.nanoTime() - call.startNanos(), TimeUnit.NANOSECONDS);
+        callRecorder.record(call, status == 0 ? HttpStatus.BAD_GATEWAY.value() : status, error, usage);
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String type, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", Map.of("message", message != null ? message : "", "type", type)));
+    }
+
+    /**
+     * 流式转发状态：第一个事件到达时才创建SseEmitter作为响应，因此上游直接返回错误时仍能透传状态码。
+     * usage 取自最后一个带 usage 的事件（OpenAI兼容平台在最后一个数据块中返回）
+     */
+    private final class StreamRelay {
+
+        private final GatewayCall call;
+        private final ApiKeyPool.KeyLease lease;
+        private final DeferredResult<Object> result;
+        private final Disposable upstream;
+
+        /**
+         * 在转发线程上写入，断开时由容器线程读取
+         */
+        private volatile JsonNode usage;
+
+        /**
+         * 只在转发线程上访问（publishOn保证事件串行）
+         */
+        private SseEmitter emitter;
+
+        /**
+         * 由容器线程（超时、连接错误回调）设置
+         */
+        private volatile boolean clientGone;
+
+        /**
+         * 上游已结束（完成或出错），之后的断开不再记录
+         */
+        private volatile boolean finished;
+
+        StreamRelay(GatewayCall call, ApiKeyPool.KeyLease lease, DeferredResult<Object> result, Disposable upstream) {
+            this.call = call;
+            this.lease = lease;
+            this.result = result;
+            this.upstream = upstream;
+        }
+
+        void send(ServerSentEvent<String> event) {
+            if (clientGone) {
+                return;
+            }
+            JsonNode eventUsage = callRecorder.usageOf(event.data());
+            if (eventUsage != null) {
+                usage = eventUsage;
+            }
+            if (emitter == null) {
+                emitter = new SseEmitter(streamTimeoutMs);
+                emitter.onTimeout(this::abort);
+                emitter.onError(e -> abort());
+                if (!result.setResult(emitter)) {
+                    // 等待首个事件时已超时
+                    abort();
+                    return;
+                }
+            }
+            try {
+                SseEmitter.SseEventBuilder builder = SseEmitter.event();
+                if (event.event() != null) {
+                    builder.name(event.event());
+                }
+                if (event.id() != null) {
+                    builder.id(event.id());
+                }
+                if (event.data() != null) {
+                    builder.data(event.data());
+                } else if (event.comment() != null) {
+                    builder.comment(event.comment());
+                } else {
+                    return;
+                }
+                emitter.send(builder);
+            } catch (Exception e) {
+                log.debug("AI网关客户端已断开：{}", e.getMessage());
+                abort();
+            }
+        }
+
+        void fail(Throwable e) {
+            int status = e instanceof WebClientResponseException responseException
+                    ? responseException.getStatusCode().value() : 0;
+            String body = e instanceof WebClientResponseException responseException
+                    ? responseException.getResponseBodyAsString() : e.getMessage();
+            finished = true;
+            recordOutcome(call, lease, status, body, usage);
+            if (emitter == null) {
+                // 还没有开始响应，按上游状态码返回错误
+                result.setResult(status > 0
+                        ? ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body)
+                        : error(HttpStatus.BAD_GATEWAY, "upstream_error", body));
+                return;
+            }
+            if (!clientGone) {
+                try {
+                    emitter.send(SseEmitter.event().data(
+                            "{\"error\":{\"message\":\"upstream stream interrupted\",\"type\":\"upstream_error\"}}"));
+                } catch (Exception ignored) {
+                    // 客户端已断开
+                }
+                emitter.complete();
+            }
+        }
+
+        void complete() {
+            finished = true;
+            recordOutcome(call, lease, 200, null, usage);
+            if (emitter == null) {
+                result.setResult(ResponseEntity.ok().build());
+            } else if (!clientGone) {
+                emitter.complete();
+            }
+        }
+
+        /**
+         * 客户端断开或超时：取消上游请求并释放Key
+         * 上游被取消后不会再有完成回调，这里记录网关日志（499，沿用已收到的 usage），不计入Key健康状态
+         */
+        private synchronized void abort() {
+            if (clientGone) {
+                return;
+            }
+            clientGone = true;
+            upstream.dispose();
+            lease.release();
+            if (!finished) {
+                callRecorder.record(call, 499, "client disconnected", usage);
+            }
+        }
+    }
+}
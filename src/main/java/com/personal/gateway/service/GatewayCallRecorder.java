@@ -0,0 +1,115 @@
+package com.personal.gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.monitor.latency.LatencyRegistry;
+import com.personal.system.log.entity.SystemLog;
+import com.personal.system.log.service.AsyncLogWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * AI网关调用记录
+ * 网关响应是异步的（DeferredResult/SSE），访问日志过滤器不会记录，这里为每次调用写一条 system_log（log_type=ai_gateway），
+ * 包含状态码、耗时、掩码Key和上游返回的 usage；经日志写入路径进入Token用量台账、错误指纹和实时推送。
+ * 耗时同时计入接口延迟直方图（/api/metrics/latency），流式调用按整个流的时长单独统计。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class GatewayCallRecorder {
+
+    public static final String LOG_TYPE = "ai_gateway";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String LATENCY_HANDLER = "ChatCompletionController#chatCompletions";
+
+    @Autowired
+    private AsyncLogWriter logWriter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LatencyRegistry latencyRegistry;
+
+    /**
+     * 一次网关调用
+     *
+     * @param platformCode 平台代码，路由失败时为null
+     * @param model 转发给平台的模型名（路由失败时为请求中的模型名）
+     * @param apiKeyMasked 掩码后的Key，未分配Key时为null（不计入Token台账）
+     * @param stream 是否流式
+     * @param userId 调用用户
+     * @param startNanos 开始时间（System.nanoTime）
+     */
+    public record GatewayCall(String platformCode, String model, String apiKeyMasked, boolean stream, Long userId,
+                              long startNanos) {
+    }
+
+    /**
+     * 记录调用结果
+     *
+     * @param status 返回给客户端的状态码
+     * @param error 错误信息，成功时为null
+     * @param usage 上游返回的 usage 节点，可为null
+     */
+    public void record(GatewayCall call, int status, String error, JsonNode usage) {
+        try {
+            long micros = (System.nanoTime() - call.startNanos()) / 1000;
+            latencyRegistry.record(call.stream() ? LATENCY_HANDLER + "(stream)" : LATENCY_HANDLER,
+                    status / 100 + "xx", micros);
+            long durationMs = micros / 1000;
+            boolean success = status >= 200 && status < 300 && error == null;
+            SystemLog systemLog = new SystemLog();
+            systemLog.setLogType(LOG_TYPE);
+            systemLog.setLogCategory("ai");
+            systemLog.setLogTitle(String.format("AI网关 %s %s %d %dms", call.platformCode() != null ? call.platformCode() : "-",
+                    call.model(), status, durationMs));
+            systemLog.setPlatformCode(call.platformCode());
+            systemLog.setModel(call.model());
+            systemLog.setApiKeyMasked(call.apiKeyMasked());
+            systemLog.setStatus(success ? "success" : "failed");
+            if (error != null) {
+                systemLog.setErrorMessage(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            }
+            systemLog.setRequestMethod("POST");
+            systemLog.setRequestUrl("/v1/chat/completions");
+            systemLog.setRequestParams(call.stream() ? "stream=true" : "stream=false");
+            systemLog.setResponseStatus(status);
+            systemLog.setDuration((int) Math.min(durationMs, Integer.MAX_VALUE));
+            systemLog.setUserId(call.userId());
+            systemLog.setCreatedAt(LocalDateTime.now());
+            if (usage != null && usage.isObject()) {
+                systemLog.setPromptTokens(usage.path("prompt_tokens").asInt());
+                systemLog.setCompletionTokens(usage.path("completion_tokens").asInt());
+                systemLog.setTotalTokens(usage.path("total_tokens").asInt());
+            }
+            logWriter.submit(systemLog);
+        } catch (Exception e) {
+            log.warn("记录AI网关调用失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从响应体（或流式的一个事件）中取出 usage，没有时返回null
+     * 流式事件大多不含 usage，先做字符串判断，避免逐个事件解析JSON
+     */
+    public JsonNode usageOf(String json) {
+        if (json == null || !json.contains("\"usage\"")) {
+            return null;
+        }
+        try {
+            JsonNode usage = objectMapper.readTree(json).path("usage");
+            return usage.isObject() ? usage : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.personal.gateway.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 模型路由：按请求的模型名选择AI平台
+ * 模型名可显式指定平台（如 zhipu/glm-4-flash，转发时去掉平台前缀），
+ * 否则按 app.gateway.model-routes 中配置的模型名前缀匹配，最长前缀优先。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class ModelRouter {
+
+    private static final Set<String> PLATFORMS = Set.of("zhipu", "doubao");
+
+    /**
+     * 模型名前缀=平台代码，逗号分隔
+     */
+    @Value("${app.gateway.model-routes:glm-=zhipu,doubao-=doubao,ep-=doubao}")
+    private String modelRoutes;
+
+    /**
+     * 模型名前缀 -> 平台代码，按前缀长度降序
+     */
+    private final Map<String, String> prefixes = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        for (String route : modelRoutes.split(",")) {
+            String[] parts = route.trim().split("=", 2);
+            if (parts.length != 2 || parts[0].isBlank() || !PLATFORMS.contains(parts[1].trim())) {
+                log.warn("忽略无效的模型路由：{}", route);
+                continue;
+            }
+            parsed.put(parts[0].trim().toLowerCase(), parts[1].trim());
+        }
+        parsed.entrySet().stream()
+                .sorted((a, b) -> b.getKey().length() - a.getKey().length())
+                .forEach(entry -> prefixes.put(entry.getKey(), entry.getValue()));
+        log.info("AI网关模型路由：{}", prefixes);
+    }
+
+    /**
+     * 解析模型名对应的平台
+     *
+     * @param model 请求中的模型名
+     * @return 路由结果，没有匹配的平台时返回null
+     */
+    public Route route(String model) {
+        int slash = model.indexOf('/');
+        if (slash > 0 && PLATFORMS.contains(model.substring(0, slash))) {
+            return new Route(model.substring(0, slash), model.substring(slash + 1));
+        }
+        String lowerModel = model.toLowerCase();
+        for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+            if (lowerModel.startsWith(entry.getKey())) {
+                return new Route(entry.getValue(), model);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 路由结果
+     *
+     * @param platformCode 平台代码
+     * @param upstreamModel 转发给平台的模型名
+     */
+    public record Route(String platformCode, String upstreamModel) {
+    }
+}
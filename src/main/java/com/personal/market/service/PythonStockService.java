@@ -2,6 +2,7 @@ package com.personal.market.service;
 
 import com.personal.market.dto.CreateReviewRequest;
 import com.personal.market.dto.MarketReviewData;
+import com.personal.monitor.metrics.PythonServiceMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -22,10 +23,12 @@ import java.util.List;
 public class PythonStockService {
 
     private final WebClient webClient;
+    private final PythonServiceMetrics metrics;
 
     @Autowired
-    public PythonStockService(WebClient pythonWebClient) {
+    public PythonStockService(WebClient pythonWebClient, PythonServiceMetrics metrics) {
         this.webClient = pythonWebClient;
+        this.metrics = metrics;
     }
 
     /**
@@ -64,9 +67,13 @@ public class PythonStockService {
                     }
                 })
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
-                        .doBeforeRetry(signal -> log.warn("重试调用Python服务，尝试: {}", signal.totalRetries() + 1)))
+                        .doBeforeRetry(signal -> {
+                            metrics.recordRetry("getMarketReview");
+                            log.warn("重试调用Python服务，尝试: {}", signal.totalRetries() + 1);
+                        }))
                 .doOnSuccess(data -> log.info("成功获取市场复盘数据"))
-                .doOnError(e -> log.error("获取市场复盘数据失败", e));
+                .doOnError(e -> log.error("获取市场复盘数据失败", e))
+                .transform(metrics.timed("getMarketReview"));
     }
 
     /**
@@ -105,9 +112,13 @@ public class PythonStockService {
                     }
                 })
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
-                        .doBeforeRetry(signal -> log.warn("重试调用Python服务，尝试: {}", signal.totalRetries() + 1)))
+                        .doBeforeRetry(signal -> {
+                            metrics.recordRetry("getReviewList");
+                            log.warn("重试调用Python服务，尝试: {}", signal.totalRetries() + 1);
+                        }))
                 .doOnSuccess(data -> log.info("成功获取复盘列表，共 {} 条记录", data.size()))
-                .doOnError(e -> log.error("获取复盘列表失败", e));
+                .doOnError(e -> log.error("获取复盘列表失败", e))
+                .transform(metrics.timed("getReviewList"));
     }
 
     /**
@@ -125,7 +136,10 @@ public class PythonStockService {
                 .retrieve()
                 .bodyToMono(MarketReviewData.class)
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
-                        .doBeforeRetry(signal -> log.warn("重试调用Python服务，尝试: {}", signal.totalRetries() + 1)))
+                        .doBeforeRetry(signal -> {
+                            metrics.recordRetry("createReview");
+                            log.warn("重试调用Python服务，尝试: {}", signal.totalRetries() + 1);
+                        }))
                 .doOnSuccess(data -> log.info("成功创建复盘记录，ID: {}", data.getId()))
                 .doOnError(e -> {
                     if (e instanceof WebClientResponseException) {
@@ -135,7 +149,8 @@ public class PythonStockService {
                     } else {
                         log.error("创建复盘记录失败", e);
                     }
-                });
+                })
+                .transform(metrics.timed("createReview"));
     }
 
     /**
@@ -154,9 +169,13 @@ public class PythonStockService {
                 .retrieve()
                 .bodyToMono(MarketReviewData.class)
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
-                        .doBeforeRetry(signal -> log.warn("重试调用Python服务，尝试: {}", signal.totalRetries() + 1)))
+                        .doBeforeRetry(signal -> {
+                            metrics.recordRetry("updateReview");
+                            log.warn("重试调用Python服务，尝试: {}", signal.totalRetries() + 1);
+                        }))
                 .doOnSuccess(data -> log.info("成功更新复盘记录，ID: {}", reviewId))
-                .doOnError(e -> log.error("更新复盘记录失败，ID: {}", reviewId, e));
+                .doOnError(e -> log.error("更新复盘记录失败，ID: {}", reviewId, e))
+                .transform(metrics.timed("updateReview"));
     }
 
     /**
@@ -173,8 +192,12 @@ public class PythonStockService {
                 .retrieve()
                 .bodyToMono(Void.class)
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
-                        .doBeforeRetry(signal -> log.warn("重试调用Python服务，尝试: {}", signal.totalRetries() + 1)))
+                        .doBeforeRetry(signal -> {
+                            metrics.recordRetry("deleteReview");
+                            log.warn("重试调用Python服务，尝试: {}", signal.totalRetries() + 1);
+                        }))
                 .doOnSuccess(data -> log.info("成功删除复盘记录，ID: {}", reviewId))
-                .doOnError(e -> log.error("删除复盘记录失败，ID: {}", reviewId, e));
+                .doOnError(e -> log.error("删除复盘记录失败，ID: {}", reviewId, e))
+                .transform(metrics.timed("deleteReview"));
     }
 }
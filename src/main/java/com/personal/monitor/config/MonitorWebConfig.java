@@ -0,0 +1,25 @@
+package com.personal.monitor.config;
+
+import com.personal.monitor.interceptor.LatencyInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 监控相关的Web配置
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Configuration
+public class MonitorWebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private LatencyInterceptor latencyInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(latencyInterceptor).addPathPatterns("/api/**");
+    }
+}
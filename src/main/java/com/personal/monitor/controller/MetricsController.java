@@ -0,0 +1,51 @@
+package com.personal.monitor.controller;
+
+import com.personal.common.util.TimeWindowUtil;
+import com.personal.monitor.latency.LatencyRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 应用指标 Controller
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    @Autowired
+    private LatencyRegistry latencyRegistry;
+
+    /**
+     * 接口延迟分位数（毫秒）
+     * 示例：/api/metrics/latency?window=5m
+     *
+     * @param window 统计窗口，支持 30s / 5m / 1h 格式，最大为配置的 max-window-minutes
+     */
+    @GetMapping("/latency")
+    public Map<String, Object> getLatency(@RequestParam(defaultValue = "5m") String window) {
+        long windowMillis;
+        try {
+            windowMillis = TimeWindowUtil.parseMillis(window);
+        } catch (IllegalArgumentException e) {
+            return Map.of("code", 400, "message", e.getMessage());
+        }
+        long effective = Math.max(latencyRegistry.getSliceMillis(),
+                Math.min(windowMillis, latencyRegistry.getMaxWindowMillis()));
+        List<Map<String, Object>> endpoints = latencyRegistry.snapshot(effective);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("windowSeconds", effective / 1000);
+        data.put("endpoints", endpoints);
+        return Map.of("code", 200, "message", "success", "data", data);
+    }
+}
@@ -0,0 +1,53 @@
+package com.personal.monitor.interceptor;
+
+import com.personal.monitor.latency.LatencyRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * 接口延迟拦截器
+ * 按处理方法（Controller#method）和状态码类别记录耗时；异步请求（SSE等长连接）不记录，
+ * AI网关的异步调用由 GatewayCallRecorder 自行记录。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class LatencyInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = LatencyInterceptor.class.getName() + ".start";
+
+    @Autowired
+    private LatencyRegistry latencyRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST && handler instanceof HandlerMethod) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.removeAttribute(START_ATTRIBUTE);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (!(start instanceof Long startNanos) || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        request.removeAttribute(START_ATTRIBUTE);
+        long micros = (System.nanoTime() - startNanos) / 1000;
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        String name = handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+        latencyRegistry.record(name, status / 100 + "xx", micros);
+    }
+}
@@ -0,0 +1,164 @@
+package com.personal.monitor.latency;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 接口延迟统计注册表
+ * 按“处理方法 + 状态码类别”分别维护滚动直方图，时间片长度由 app.metrics.latency.slice-seconds 决定。
+ * /api/** 由 LatencyInterceptor 记录；异步的AI网关（/v1/chat/completions）由 GatewayCallRecorder 按整个调用的耗时记录。
+ * 写入路径只做两次ConcurrentHashMap查找和一次无锁的Recorder写入，不分配对象、不持有锁；
+ * 空闲条目由 roll 标记退役后移除，退役前已开始的写入在下一个时间片取回并入新的直方图。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class LatencyRegistry {
+
+    private final long sliceMillis;
+    private final int sliceCount;
+
+    /**
+     * 处理方法 -> 状态码类别 -> 直方图；外层按处理方法（数量由代码决定）只增不减
+     */
+    private final Map<String, Map<String, RollingLatencyHistogram>> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * 上一次滚动时退役的直方图，下一次滚动时取回其剩余数据；只在 roll 中访问
+     */
+    private List<Retired> retired = new ArrayList<>();
+
+    /**
+     * 最近一个已结束的时间片序号，-1表示还没有结束的时间片
+     */
+    private volatile long latestSliceId = -1;
+
+    public LatencyRegistry(@Value("${app.metrics.latency.slice-seconds:10}") int sliceSeconds,
+                           @Value("${app.metrics.latency.max-window-minutes:60}") int maxWindowMinutes) {
+        this.sliceMillis = Math.max(1, sliceSeconds) * 1000L;
+        this.sliceCount = (int) Math.max(1, maxWindowMinutes * 60_000L / sliceMillis);
+    }
+
+    /**
+     * 记录一次请求耗时
+     *
+     * @param handler 处理方法，如 MarketReviewController#getReview
+     * @param statusClass 状态码类别，如 2xx
+     * @param micros 耗时（微秒）
+     */
+    public void record(String handler, String statusClass, long micros) {
+        Map<String, RollingLatencyHistogram> byStatus = histograms.get(handler);
+        if (byStatus == null) {
+            byStatus = histograms.computeIfAbsent(handler, k -> new ConcurrentHashMap<>());
+        }
+        while (true) {
+            RollingLatencyHistogram histogram = byStatus.get(statusClass);
+            if (histogram == null) {
+                histogram = byStatus.computeIfAbsent(statusClass, k -> new RollingLatencyHistogram(sliceCount));
+            }
+            if (histogram.record(micros)) {
+                return;
+            }
+            // 已被淘汰，移除后重建
+            byStatus.remove(statusClass, histogram);
+        }
+    }
+
+    /**
+     * 每秒检查一次，跨过时间片边界时滚动所有直方图
+     */
+    @Scheduled(fixedRate = 1000)
+    public void roll() {
+        long sliceId = System.currentTimeMillis() / sliceMillis - 1;
+        if (sliceId <= latestSliceId) {
+            return;
+        }
+        // 上次退役的直方图中退役前已开始的写入，并入当前的直方图后随本次滚动生效
+        for (Retired entry : retired) {
+            Histogram leftover = entry.histogram().drain();
+            if (leftover != null) {
+                histograms.computeIfAbsent(entry.handler(), k -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(entry.statusClass(), k -> new RollingLatencyHistogram(sliceCount))
+                        .absorb(leftover);
+            }
+        }
+        List<Retired> retiring = new ArrayList<>();
+        histograms.forEach((handler, byStatus) -> byStatus.forEach((statusClass, histogram) -> {
+            histogram.roll(sliceId);
+            // 整个最大窗口内都没有请求的条目退役并移除，等下次请求时再创建
+            if (histogram.isIdle()) {
+                histogram.retire();
+                byStatus.remove(statusClass, histogram);
+                retiring.add(new Retired(handler, statusClass, histogram));
+            }
+        }));
+        retired = retiring;
+        latestSliceId = sliceId;
+    }
+
+    /**
+     * 查询窗口内各接口的延迟分位数（毫秒），按p99倒序
+     *
+     * @param windowMillis 窗口长度
+     */
+    public List<Map<String, Object>> snapshot(long windowMillis) {
+        long latest = latestSliceId;
+        int slices = (int) Math.max(1, Math.min(sliceCount, windowMillis / sliceMillis));
+        double seconds = slices * sliceMillis / 1000.0;
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (latest < 0) {
+            return result;
+        }
+        histograms.forEach((handler, byStatus) -> byStatus.forEach((statusClass, rolling) -> {
+            Histogram histogram = rolling.snapshot(latest, slices);
+            if (histogram == null) {
+                return;
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("handler", handler);
+            item.put("status", statusClass);
+            item.put("count", histogram.getTotalCount());
+            item.put("rps", round(histogram.getTotalCount() / seconds));
+            item.put("p50", toMillis(histogram.getValueAtPercentile(50)));
+            item.put("p90", toMillis(histogram.getValueAtPercentile(90)));
+            item.put("p99", toMillis(histogram.getValueAtPercentile(99)));
+            item.put("max", toMillis(histogram.getMaxValue()));
+            item.put("mean", round(histogram.getMean() / 1000.0));
+            result.add(item);
+        }));
+        result.sort((a, b) -> Double.compare((double) b.get("p99"), (double) a.get("p99")));
+        return result;
+    }
+
+    /**
+     * 单次查询可用的最大窗口（毫秒）
+     */
+    public long getMaxWindowMillis() {
+        return sliceCount * sliceMillis;
+    }
+
+    public long getSliceMillis() {
+        return sliceMillis;
+    }
+
+    private static double toMillis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private record Retired(String handler, String statusClass, RollingLatencyHistogram histogram) {
+    }
+}
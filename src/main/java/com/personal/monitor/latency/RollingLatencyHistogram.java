@@ -0,0 +1,151 @@
+package com.personal.monitor.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 滚动窗口延迟直方图
+ * 写入走HdrHistogram的Recorder（无锁、双缓冲），每个时间片结束时取出区间直方图放入环形数组；
+ * 查询时合并窗口内的时间片。记录值单位为微秒。
+ * 空闲淘汰时先标记为已退役，退役后写入方会改用新的直方图；标记前已开始的写入由注册表在下一个时间片取回。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public class RollingLatencyHistogram {
+
+    /**
+     * 最大可记录值：1小时（微秒），超出的值按最大值记录
+     */
+    static final long HIGHEST_TRACKABLE_MICROS = 3_600_000_000L;
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    /**
+     * 自动扩容的紧凑（packed）计数数组，稀疏分布时内存占用远小于定长数组
+     */
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS, true);
+
+    /**
+     * 已结束的时间片，下标为时间片序号对容量取模；没有请求的时间片为null
+     */
+    private final Histogram[] slices;
+    private final long[] sliceIds;
+
+    /**
+     * 创建以来滚动的次数
+     */
+    private long rolls;
+
+    /**
+     * 从已退役的直方图取回、尚未并入时间片的数据
+     */
+    private Histogram pending;
+
+    private volatile boolean retired;
+
+    public RollingLatencyHistogram(int sliceCount) {
+        this.slices = new Histogram[sliceCount];
+        this.sliceIds = new long[sliceCount];
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @return 已退役时返回false，调用方应改用注册表中的新直方图
+     */
+    public boolean record(long micros) {
+        if (retired) {
+            return false;
+        }
+        recorder.recordValue(Math.max(1, Math.min(micros, HIGHEST_TRACKABLE_MICROS)));
+        return true;
+    }
+
+    /**
+     * 标记为已退役，之后的写入会被拒绝
+     */
+    public void retire() {
+        retired = true;
+    }
+
+    public boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * 取出退役前已开始、退役后才完成的写入（Recorder会等待进行中的写入完成）
+     *
+     * @return 取回的数据，没有时返回null
+     */
+    public Histogram drain() {
+        Histogram interval = recorder.getIntervalHistogram();
+        return interval.getTotalCount() > 0 ? interval : null;
+    }
+
+    /**
+     * 并入其他直方图取回的数据，随下一个时间片生效
+     */
+    public synchronized void absorb(Histogram histogram) {
+        if (pending == null) {
+            pending = new Histogram(SIGNIFICANT_DIGITS);
+        }
+        pending.add(histogram);
+    }
+
+    /**
+     * 结束当前时间片
+     *
+     * @param sliceId 刚结束的时间片序号
+     */
+    public synchronized void roll(long sliceId) {
+        Histogram interval = recorder.getIntervalHistogram();
+        if (pending != null) {
+            interval.add(pending);
+            pending = null;
+        }
+        int index = (int) (sliceId % slices.length);
+        slices[index] = interval.getTotalCount() > 0 ? interval : null;
+        sliceIds[index] = sliceId;
+        rolls++;
+    }
+
+    /**
+     * 合并最近若干个时间片
+     *
+     * @param latestSliceId 最近一个已结束的时间片序号
+     * @param sliceCount 合并的时间片数量
+     * @return 合并后的直方图，窗口内没有请求时返回null
+     */
+    public synchronized Histogram snapshot(long latestSliceId, int sliceCount) {
+        Histogram merged = null;
+        int count = Math.min(sliceCount, slices.length);
+        for (long id = latestSliceId; id > latestSliceId - count && id >= 0; id--) {
+            int index = (int) (id % slices.length);
+            Histogram slice = slices[index];
+            if (slice == null || sliceIds[index] != id) {
+                continue;
+            }
+            if (merged == null) {
+                merged = new Histogram(SIGNIFICANT_DIGITS);
+            }
+            merged.add(slice);
+        }
+        return merged;
+    }
+
+    /**
+     * 整个最大窗口内是否都没有数据（用于清理不再访问的接口）
+     */
+    public synchronized boolean isIdle() {
+        if (rolls < slices.length) {
+            return false;
+        }
+        for (Histogram slice : slices) {
+            if (slice != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package com.personal.monitor.metrics;
+
+import com.personal.system.log.entity.SystemLog;
+import com.personal.system.log.service.SystemLogListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 保活调用指标，从keepalive日志写入路径采集：
+ * keepalive.calls（按平台、状态计数）、keepalive.latency（按平台的调用耗时）、keepalive.tokens（按平台、类型累计的token数）
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class KeepAliveMetrics implements SystemLogListener {
+
+    private static final String LOG_TYPE = "keepalive";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void onLogSaved(SystemLog systemLog) {
+        if (!LOG_TYPE.equals(systemLog.getLogType())) {
+            return;
+        }
+        String platform = systemLog.getPlatformCode() != null ? systemLog.getPlatformCode() : "unknown";
+        String status = systemLog.getStatus() != null ? systemLog.getStatus() : "unknown";
+
+        Counter.builder("keepalive.calls")
+                .description("保活调用次数")
+                .tag("platform", platform)
+                .tag("status", status)
+                .register(meterRegistry)
+                .increment();
+
+        if (systemLog.getDuration() != null) {
+            Timer.builder("keepalive.latency")
+                    .description("保活调用耗时")
+                    .tag("platform", platform)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.ofMillis(systemLog.getDuration()));
+        }
+
+        recordTokens(platform, "prompt", systemLog.getPromptTokens());
+        recordTokens(platform, "completion", systemLog.getCompletionTokens());
+    }
+
+    private void recordTokens(String platform, String kind, Integer tokens) {
+        if (tokens == null || tokens <= 0) {
+            return;
+        }
+        Counter.builder("keepalive.tokens")
+                .description("保活调用消耗的token数")
+                .tag("platform", platform)
+                .tag("kind", kind)
+                .register(meterRegistry)
+                .increment(tokens);
+    }
+}
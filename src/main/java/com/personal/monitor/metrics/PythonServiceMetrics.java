@@ -0,0 +1,59 @@
+package com.personal.monitor.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Python服务调用指标
+ * python.service.calls：按接口和结果（success/error/cancelled）统计的调用耗时（含重试）；
+ * python.service.retries：按接口统计的重试次数
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class PythonServiceMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 对Mono计时，从订阅开始到完成（包含所有重试）
+     *
+     * @param operation 接口名称
+     */
+    public <T> Function<Mono<T>, Mono<T>> timed(String operation) {
+        return mono -> Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return mono
+                    .doOnSuccess(value -> sample.stop(timer(operation, "success")))
+                    .doOnError(e -> sample.stop(timer(operation, "error")))
+                    .doOnCancel(() -> sample.stop(timer(operation, "cancelled")));
+        });
+    }
+
+    /**
+     * 记录一次重试
+     */
+    public void recordRetry(String operation) {
+        Counter.builder("python.service.retries")
+                .description("Python服务调用重试次数")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("python.service.calls")
+                .description("Python服务调用耗时（含重试）")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,49 @@
+package com.personal.monitor.metrics;
+
+import com.personal.system.log.entity.SystemLog;
+import com.personal.system.log.service.AsyncLogWriter;
+import com.personal.system.log.service.SystemLogListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 系统日志指标：
+ * system_log.writes（按日志类型、状态计数）、system_log.queue.depth（异步写入队列长度）、system_log.queue.dropped（队列满被丢弃的日志数）
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class SystemLogMetrics implements SystemLogListener {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AsyncLogWriter asyncLogWriter;
+
+    @PostConstruct
+    public void registerQueueMeters() {
+        Gauge.builder("system_log.queue.depth", asyncLogWriter, AsyncLogWriter::getQueueSize)
+                .description("日志异步写入队列中等待写入的数量")
+                .register(meterRegistry);
+        FunctionCounter.builder("system_log.queue.dropped", asyncLogWriter, AsyncLogWriter::getDroppedCount)
+                .description("日志异步写入队列已满时丢弃的数量")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onLogSaved(SystemLog systemLog) {
+        Counter.builder("system_log.writes")
+                .description("写入的系统日志数量")
+                .tag("log_type", systemLog.getLogType() != null ? systemLog.getLogType() : "unknown")
+                .tag("status", systemLog.getStatus() != null ? systemLog.getStatus() : "unknown")
+                .register(meterRegistry)
+                .increment();
+    }
+}
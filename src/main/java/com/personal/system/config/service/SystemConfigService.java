@@ -147,6 +147,30 @@ public class SystemConfigService {
         log.info("更新配置：{} = {}", configKey, configValue);
     }
 
+    /**
+     * 保存配置值：配置不存在时新增，存在时只更新值（用于程序自身维护的状态类配置，不打印配置值）
+     */
+    public void saveConfigValue(String configKey, String configValue, String configType, String category, String description) {
+        SystemConfig existing = configMapper.selectByKey(configKey);
+        if (existing != null) {
+            LambdaUpdateWrapper<SystemConfig> updateWrapper = new LambdaUpdateWrapper<>();
+            updateWrapper.eq(SystemConfig::getConfigKey, configKey)
+                    .set(SystemConfig::getConfigValue, configValue)
+                    .set(SystemConfig::getUpdatedAt, LocalDateTime.now());
+            configMapper.update(null, updateWrapper);
+        } else {
+            SystemConfig config = new SystemConfig();
+            config.setConfigKey(configKey);
+            config.setConfigValue(configValue);
+            config.setConfigType(configType);
+            config.setCategory(category);
+            config.setDescription(description);
+            config.setIsActive(1);
+            configMapper.insert(config);
+            log.info("新增配置：{}", configKey);
+        }
+    }
+
     /**
      * 更新配置的启用状态
      */
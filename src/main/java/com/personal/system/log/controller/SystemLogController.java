@@ -0,0 +1,166 @@
+package com.personal.system.log.controller;
+
+import com.personal.system.log.dto.LogQueryDTO;
+import com.personal.system.log.entity.ErrorFingerprint;
+import com.personal.system.log.entity.SystemLog;
+import com.personal.system.log.service.ErrorFingerprintService;
+import com.personal.system.log.service.LogBroadcastService;
+import com.personal.system.log.service.LogSearchService;
+import com.personal.system.log.service.SystemLogExportService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 系统日志管理 Controller
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/system/logs")
+public class SystemLogController {
+
+    @Autowired
+    private SystemLogExportService exportService;
+
+    @Autowired
+    private LogSearchService searchService;
+
+    @Autowired
+    private LogBroadcastService broadcastService;
+
+    @Autowired
+    private ErrorFingerprintService fingerprintService;
+
+    /**
+     * 流式导出日志
+     * 示例：/api/v1/system/logs/export?format=csv&gzip=true&platformCode=zhipu&startTime=2026-10-01 00:00:00
+     *
+     * @param query 过滤条件
+     * @param format 导出格式：ndjson（默认）/csv
+     * @param gzip 是否gzip压缩
+     */
+    @GetMapping("/export")
+    public void exportLogs(
+            LogQueryDTO query,
+            @RequestParam(defaultValue = SystemLogExportService.FORMAT_NDJSON) String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+
+        // 先校验参数，避免响应头写出后才发现格式错误
+        String normalized = exportService.normalizeFormat(format);
+
+        String fileName = "system_log_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + "." + normalized + (gzip ? ".gz" : "");
+        String contentType = SystemLogExportService.FORMAT_CSV.equals(normalized)
+                ? "text/csv;charset=UTF-8"
+                : "application/x-ndjson;charset=UTF-8";
+
+        response.setContentType(gzip ? "application/gzip" : contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+
+        log.info("开始导出日志，格式：{}，压缩：{}，条件：{}", normalized, gzip, query);
+        ServletOutputStream out = response.getOutputStream();
+        exportService.export(query, normalized, gzip, out);
+        out.flush();
+    }
+
+    /**
+     * 全文检索日志（标题、内容、错误信息）
+     * 示例：/api/v1/system/logs/search?keyword=timeout 429&platformCode=zhipu&status=failed
+     *
+     * @param keyword 关键词，空格分隔的多个词需同时命中
+     * @param query 过滤条件
+     * @param limit 最多返回数量
+     */
+    @GetMapping("/search")
+    public Map<String, Object> searchLogs(
+            @RequestParam(required = false) String keyword,
+            LogQueryDTO query,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            List<SystemLog> logs = searchService.search(keyword, query, limit);
+            return Map.of("code", 200, "message", "success", "data", logs);
+        } catch (IllegalStateException e) {
+            return Map.of("code", 503, "message", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取检索索引状态
+     */
+    @GetMapping("/search/stats")
+    public Map<String, Object> getSearchStats() {
+        return Map.of("code", 200, "message", "success", "data", searchService.getIndexStats());
+    }
+
+    /**
+     * 实时日志推送（SSE），数据来自内存缓冲区，不查询数据库
+     * 示例：/api/v1/system/logs/stream?logType=keepalive&platformCode=zhipu&backfill=20
+     *
+     * @param query 过滤条件（时间范围条件不生效）
+     * @param backfill 订阅时先补发最近的多少条匹配日志
+     * @param lastEventId 断线重连时的最后事件ID
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLogs(
+            LogQueryDTO query,
+            @RequestParam(defaultValue = "0") int backfill,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return broadcastService.subscribe(query, lastEventId, backfill);
+    }
+
+    /**
+     * 获取实时推送状态
+     */
+    @GetMapping("/stream/stats")
+    public Map<String, Object> getStreamStats() {
+        return Map.of("code", 200, "message", "success", "data", broadcastService.getStats());
+    }
+
+    /**
+     * 按错误指纹分组查看失败日志
+     * 示例：/api/v1/system/logs/errors?platformCode=zhipu&since=2026-10-18 00:00:00
+     *
+     * @param logType 日志类型，可选
+     * @param platformCode 平台代码，可选
+     * @param since 只返回该时间之后仍出现过的错误，可选
+     * @param limit 最多返回数量
+     */
+    @GetMapping("/errors")
+    public Map<String, Object> getErrorGroups(
+            @RequestParam(required = false) String logType,
+            @RequestParam(required = false) String platformCode,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime since,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<ErrorFingerprint> groups = fingerprintService.getErrorGroups(logType, platformCode, since, limit);
+        return Map.of("code", 200, "message", "success", "data", groups);
+    }
+
+    /**
+     * 获取单个错误分组详情
+     */
+    @GetMapping("/errors/{fingerprint}")
+    public Map<String, Object> getErrorGroup(@PathVariable String fingerprint) {
+        ErrorFingerprint group = fingerprintService.getByFingerprint(fingerprint);
+        if (group == null) {
+            return Map.of("code", 404, "message", "错误分组不存在");
+        }
+        return Map.of("code", 200, "message", "success", "data", group);
+    }
+}
@@ -0,0 +1,49 @@
+package com.personal.system.log.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * 日志查询条件
+ * 所有条件均可为空，为空时不参与过滤
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Data
+public class LogQueryDTO {
+
+    /**
+     * 日志类型：api_access/keepalive/ai_gateway/task_execution/user_action/system_event
+     */
+    private String logType;
+
+    /**
+     * 平台代码：zhipu, doubao
+     */
+    private String platformCode;
+
+    /**
+     * 任务代码：zhipu_keepalive, doubao_keepalive
+     */
+    private String taskCode;
+
+    /**
+     * 执行状态：success/failed/pending
+     */
+    private String status;
+
+    /**
+     * 开始时间（包含）
+     */
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startTime;
+
+    /**
+     * 结束时间（包含）
+     */
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime endTime;
+}
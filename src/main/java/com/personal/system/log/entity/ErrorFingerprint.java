@@ -0,0 +1,91 @@
+package com.personal.system.log.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 错误指纹实体类
+ * 同一类错误（规范化后的错误信息相同）只保留一行，记录出现次数、首次/最近出现时间和一条样例
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("error_fingerprint")
+public class ErrorFingerprint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 主键ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 错误指纹（日志类型 + 平台 + 规范化错误信息的MD5）
+     */
+    @TableField("fingerprint")
+    private String fingerprint;
+
+    /**
+     * 日志类型
+     */
+    @TableField("log_type")
+    private String logType;
+
+    /**
+     * 平台代码
+     */
+    @TableField("platform_code")
+    private String platformCode;
+
+    /**
+     * 任务代码
+     */
+    @TableField("task_code")
+    private String taskCode;
+
+    /**
+     * 规范化后的错误信息
+     */
+    @TableField("normalized_message")
+    private String normalizedMessage;
+
+    /**
+     * 样例错误信息（首次出现时的原始信息）
+     */
+    @TableField("sample_message")
+    private String sampleMessage;
+
+    /**
+     * 最近一次出现的日志ID
+     */
+    @TableField("last_log_id")
+    private Long lastLogId;
+
+    /**
+     * 出现次数
+     */
+    @TableField("occurrence_count")
+    private Long occurrenceCount;
+
+    /**
+     * 首次出现时间
+     */
+    @TableField("first_seen")
+    private LocalDateTime firstSeen;
+
+    /**
+     * 最近出现时间
+     */
+    @TableField("last_seen")
+    private LocalDateTime lastSeen;
+}
@@ -1,6 +1,7 @@
 package com.personal.system.log.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.Accessors;
@@ -129,4 +130,32 @@ public class SystemLog implements Serializable {
      */
     @TableField(value = "created_at", fill = FieldFill.INSERT)
     private LocalDateTime createdAt;
+
+    /**
+     * 掩码后的API Key（AI相关日志，不落库，由写入路径汇总到用量台账）
+     */
+    @TableField(exist = false)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String apiKeyMasked;
+
+    /**
+     * 提示词Token数（不落库）
+     */
+    @TableField(exist = false)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer promptTokens;
+
+    /**
+     * 生成Token数（不落库）
+     */
+    @TableField(exist = false)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer completionTokens;
+
+    /**
+     * 总Token数（不落库）
+     */
+    @TableField(exist = false)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalTokens;
 }
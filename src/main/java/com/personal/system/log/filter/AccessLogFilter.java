@@ -0,0 +1,239 @@
+package com.personal.system.log.filter;
+
+import com.personal.auth.filter.JwtAuthenticationFilter;
+import com.personal.system.log.entity.SystemLog;
+import com.personal.system.log.service.AsyncLogWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP访问日志过滤器
+ * 位于过滤器链最外层，记录请求方法、URL、参数、响应状态、IP、用户和耗时，异步写入system_log（log_type=api_access）。
+ * 正常请求按采样率记录，出错（状态码>=400或抛出异常）和慢请求始终记录；默认只记录查询参数，不缓存请求体。
+ * 只有连接来自受信任代理时才采用 X-Forwarded-For / X-Real-IP，否则记录连接的远端地址，防止客户端伪造IP。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final String LOG_TYPE = "api_access";
+
+    private static final int MAX_PARAMS_LENGTH = 2000;
+
+    /**
+     * 只对形如IP的值做代理匹配，避免对伪造的主机名做DNS解析
+     */
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9a-fA-F.:]+");
+
+    @Value("${app.access-log.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 正常请求的采样率（0~1）
+     */
+    @Value("${app.access-log.sample-rate:0.1}")
+    private double sampleRate;
+
+    /**
+     * 超过该耗时的请求始终记录
+     */
+    @Value("${app.access-log.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    /**
+     * 是否记录请求体（仅在需要排查时开启）
+     */
+    @Value("${app.access-log.include-body:false}")
+    private boolean includeBody;
+
+    @Value("${app.access-log.max-body-length:2000}")
+    private int maxBodyLength;
+
+    /**
+     * 不记录的路径前缀（长连接、健康检查等）
+     */
+    @Value("${app.access-log.exclude-paths:/api/v1/system/logs/stream,/actuator,/doc.html,/webjars,/v3/api-docs}")
+    private List<String> excludePaths;
+
+    /**
+     * 受信任的反向代理地址（IP或CIDR），只有来自这些地址的连接才采用转发头中的客户端IP
+     */
+    @Value("${app.access-log.trusted-proxies:127.0.0.1,::1}")
+    private List<String> trustedProxies;
+
+    @Autowired
+    private AsyncLogWriter logWriter;
+
+    private List<IpAddressMatcher> proxyMatchers = List.of();
+
+    @PostConstruct
+    public void init() {
+        proxyMatchers = trustedProxies.stream()
+                .map(String::trim)
+                .filter(ip -> !ip.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String uri = request.getRequestURI();
+        for (String prefix : excludePaths) {
+            if (!prefix.isEmpty() && uri.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        HttpServletRequest wrapped = includeBody && !isMultipart(request)
+                ? new ContentCachingRequestWrapper(request, maxBodyLength)
+                : request;
+
+        long startNanos = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(wrapped, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            // 异步请求（如SSE）在此时尚未结束，耗时和状态没有意义，不记录
+            if (!wrapped.isAsyncStarted()) {
+                long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+                record(wrapped, response, durationMs, failure);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long durationMs, Throwable failure) {
+        try {
+            int status = failure != null && response.getStatus() < 400 ? 500 : response.getStatus();
+            boolean error = status >= 400 || failure != null;
+            boolean slow = durationMs >= slowThresholdMs;
+            if (!error && !slow && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                return;
+            }
+
+            SystemLog systemLog = new SystemLog();
+            systemLog.setLogType(LOG_TYPE);
+            systemLog.setLogCategory(slow && !error ? "slow" : "http");
+            systemLog.setLogTitle(request.getMethod() + " " + request.getRequestURI() + " " + status + " " + durationMs + "ms");
+            systemLog.setStatus(error ? "failed" : "success");
+            if (error) {
+                systemLog.setErrorMessage(failure != null
+                        ? failure.getClass().getSimpleName() + ": " + failure.getMessage()
+                        : "HTTP " + status + " " + request.getMethod() + " " + request.getRequestURI());
+            }
+            systemLog.setRequestMethod(request.getMethod());
+            systemLog.setRequestUrl(request.getRequestURI());
+            systemLog.setRequestParams(buildParams(request));
+            systemLog.setResponseStatus(status);
+            systemLog.setIpAddress(resolveClientIp(request));
+            systemLog.setDuration((int) Math.min(durationMs, Integer.MAX_VALUE));
+            systemLog.setCreatedAt(LocalDateTime.now());
+            Object userId = request.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+            if (userId instanceof Long id) {
+                systemLog.setUserId(id);
+            }
+            logWriter.submit(systemLog);
+        } catch (Exception e) {
+            log.warn("记录访问日志失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 查询参数；开启请求体记录时附加已读取的请求体
+     */
+    private String buildParams(HttpServletRequest request) {
+        String params = request.getQueryString();
+        if (request instanceof ContentCachingRequestWrapper cached) {
+            byte[] body = cached.getContentAsByteArray();
+            if (body.length > 0) {
+                String text = new String(body, StandardCharsets.UTF_8);
+                params = params == null ? text : params + "\n" + text;
+            }
+        }
+        if (params != null && params.length() > MAX_PARAMS_LENGTH) {
+            params = params.substring(0, MAX_PARAMS_LENGTH);
+        }
+        return params;
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
+    }
+
+    /**
+     * 客户端IP：连接来自受信任代理时，从 X-Forwarded-For 右侧向左跳过受信任代理，取第一个其他地址；
+     * 没有该头时使用 X-Real-IP；连接不是来自受信任代理时直接使用远端地址
+     */
+    private String resolveClientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            String[] hops = forwarded.split(",");
+            String client = remoteAddr;
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (hop.isEmpty()) {
+                    continue;
+                }
+                client = hop;
+                if (!isTrustedProxy(hop)) {
+                    break;
+                }
+            }
+            return client;
+        }
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && !realIp.isBlank()) {
+            return realIp.trim();
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        if (address == null || !IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        try {
+            return proxyMatchers.stream().anyMatch(matcher -> matcher.matches(address));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.personal.system.log.index;
+
+import com.personal.system.log.dto.LogQueryDTO;
+import com.personal.system.log.entity.SystemLog;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 日志倒排索引
+ * 按固定文档数切分为多个段（segment），写入只追加到最新段；段数超过上限时整段淘汰最旧的数据，
+ * 从而以O(1)代价限制内存。查询从最新段向旧段扫描，命中数量达到limit即停止。
+ * 字段字典按引用计数维护，段淘汰时释放只被该段引用的编码，字典大小随存活的段变化而不会无限增长。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public class LogSearchIndex {
+
+    /**
+     * 每条日志最多索引的词数量
+     */
+    private static final int MAX_TOKENS_PER_DOC = 256;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final Dictionary dictionary = new Dictionary();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public LogSearchIndex(int segmentSize, int maxSegments) {
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * 添加日志到索引
+     */
+    public void add(SystemLog log) {
+        if (log == null || log.getId() == null) {
+            return;
+        }
+        Set<String> tokens = new HashSet<>();
+        LogTokenizer.tokenize(log.getLogTitle(), MAX_TOKENS_PER_DOC, tokens);
+        LogTokenizer.tokenize(log.getErrorMessage(), MAX_TOKENS_PER_DOC, tokens);
+        LogTokenizer.tokenize(log.getLogContent(), MAX_TOKENS_PER_DOC, tokens);
+        LogTokenizer.tokenize(log.getRequestUrl(), MAX_TOKENS_PER_DOC, tokens);
+
+        lock.writeLock().lock();
+        try {
+            Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (segment == null || segment.size >= segmentSize) {
+                segment = new Segment(segmentSize);
+                segments.add(segment);
+                if (segments.size() > maxSegments) {
+                    segments.remove(0).release(dictionary);
+                }
+            }
+            segment.add(log, tokens, dictionary);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询日志ID（按写入顺序倒序，即最新的在前）
+     *
+     * @param keyword 关键词（多个词之间为AND关系），为空时只按条件过滤
+     * @param filter 过滤条件（日志类型、平台、任务、状态、时间范围）
+     * @param limit 最多返回数量
+     * @return 日志ID列表
+     */
+    public List<Long> search(String keyword, LogQueryDTO filter, int limit) {
+        Set<String> tokens = LogTokenizer.tokenizeQuery(keyword);
+        if (keyword != null && !keyword.isBlank() && tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Criteria criteria = Criteria.of(filter, dictionary);
+            if (criteria == null) {
+                return List.of();
+            }
+            List<Long> result = new ArrayList<>(Math.min(limit, 256));
+            for (int i = segments.size() - 1; i >= 0 && result.size() < limit; i--) {
+                segments.get(i).search(tokens, criteria, limit, result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 清空索引
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            segments.clear();
+            dictionary.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 索引统计信息
+     */
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            long docs = 0;
+            long terms = 0;
+            long postingBytes = 0;
+            for (Segment segment : segments) {
+                docs += segment.size;
+                terms += segment.postings.size();
+                for (PostingList posting : segment.postings.values()) {
+                    postingBytes += posting.byteSize();
+                }
+            }
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("documents", docs);
+            stats.put("segments", segments.size());
+            stats.put("terms", terms);
+            stats.put("dictionarySize", dictionary.size());
+            stats.put("postingBytes", postingBytes);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 索引段：文档序号为段内局部序号，元数据按序号存放在定长数组中
+     */
+    private static final class Segment {
+
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private final long[] ids;
+        private final long[] createdAt;
+        private final short[] logType;
+        private final short[] platform;
+        private final short[] task;
+        private final short[] status;
+        private int size;
+
+        Segment(int capacity) {
+            this.ids = new long[capacity];
+            this.createdAt = new long[capacity];
+            this.logType = new short[capacity];
+            this.platform = new short[capacity];
+            this.task = new short[capacity];
+            this.status = new short[capacity];
+        }
+
+        void add(SystemLog log, Set<String> tokens, Dictionary dictionary) {
+            int ordinal = size++;
+            ids[ordinal] = log.getId();
+            createdAt[ordinal] = toEpochMillis(log.getCreatedAt());
+            logType[ordinal] = dictionary.code(log.getLogType());
+            platform[ordinal] = dictionary.code(log.getPlatformCode());
+            task[ordinal] = dictionary.code(log.getTaskCode());
+            status[ordinal] = dictionary.code(log.getStatus());
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, k -> new PostingList()).add(ordinal);
+            }
+        }
+
+        /**
+         * 段被淘汰时释放其引用的字典编码
+         */
+        void release(Dictionary dictionary) {
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                dictionary.release(logType[ordinal]);
+                dictionary.release(platform[ordinal]);
+                dictionary.release(task[ordinal]);
+                dictionary.release(status[ordinal]);
+            }
+        }
+
+        void search(Set<String> tokens, Criteria criteria, int limit, List<Long> result) {
+            if (tokens.isEmpty()) {
+                for (int ordinal = size - 1; ordinal >= 0 && result.size() < limit; ordinal--) {
+                    if (criteria.matches(this, ordinal)) {
+                        result.add(ids[ordinal]);
+                    }
+                }
+                return;
+            }
+
+            // 从最短的倒排列表开始求交集，候选集合尽快缩小
+            List<PostingList> lists = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                PostingList posting = postings.get(token);
+                if (posting == null) {
+                    return;
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::count));
+
+            int[] candidates = lists.get(0).toArray();
+            int candidateSize = candidates.length;
+            for (int i = 1; i < lists.size() && candidateSize > 0; i++) {
+                candidateSize = lists.get(i).retainAll(candidates, candidateSize);
+            }
+            for (int i = candidateSize - 1; i >= 0 && result.size() < limit; i--) {
+                int ordinal = candidates[i];
+                if (criteria.matches(this, ordinal)) {
+                    result.add(ids[ordinal]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 已编码的过滤条件，-1表示不过滤
+     */
+    private record Criteria(short logType, short platform, short task, short status, long start, long end) {
+
+        /**
+         * 编码过滤条件；如果条件值从未出现过，直接返回null表示无结果
+         */
+        static Criteria of(LogQueryDTO filter, Dictionary dictionary) {
+            if (filter == null) {
+                return new Criteria((short) -1, (short) -1, (short) -1, (short) -1, Long.MIN_VALUE, Long.MAX_VALUE);
+            }
+            short logType = dictionary.lookup(filter.getLogType());
+            short platform = dictionary.lookup(filter.getPlatformCode());
+            short task = dictionary.lookup(filter.getTaskCode());
+            short status = dictionary.lookup(filter.getStatus());
+            if (logType == -2 || platform == -2 || task == -2 || status == -2) {
+                return null;
+            }
+            long start = filter.getStartTime() != null ? toEpochMillis(filter.getStartTime()) : Long.MIN_VALUE;
+            long end = filter.getEndTime() != null ? toEpochMillis(filter.getEndTime()) : Long.MAX_VALUE;
+            return new Criteria(logType, platform, task, status, start, end);
+        }
+
+        boolean matches(Segment segment, int ordinal) {
+            return (logType < 0 || segment.logType[ordinal] == logType)
+                    && (platform < 0 || segment.platform[ordinal] == platform)
+                    && (task < 0 || segment.task[ordinal] == task)
+                    && (status < 0 || segment.status[ordinal] == status)
+                    && segment.createdAt[ordinal] >= start
+                    && segment.createdAt[ordinal] <= end;
+        }
+    }
+
+    /**
+     * 低基数字段（日志类型、平台、任务、状态）的字典编码
+     * 每个编码记录被多少条文档字段引用，引用归零时回收编码供新值复用
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Short> codes = new HashMap<>();
+
+        /**
+         * 按编码存放的值，下标0保留给null
+         */
+        private final List<String> values = new ArrayList<>(List.of(""));
+        private int[] refs = new int[16];
+        private final ArrayDeque<Short> freeCodes = new ArrayDeque<>();
+
+        /**
+         * 获取或分配编码并增加引用，null编码为0
+         */
+        short code(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Short code = codes.get(value);
+            if (code == null) {
+                if (!freeCodes.isEmpty()) {
+                    code = freeCodes.pop();
+                    values.set(code, value);
+                } else {
+                    if (values.size() >= Short.MAX_VALUE) {
+                        return 0;
+                    }
+                    code = (short) values.size();
+                    values.add(value);
+                    if (code >= refs.length) {
+                        refs = Arrays.copyOf(refs, Math.min(refs.length * 2, Short.MAX_VALUE));
+                    }
+                }
+                codes.put(value, code);
+            }
+            refs[code]++;
+            return code;
+        }
+
+        /**
+         * 减少引用，引用归零时回收编码
+         */
+        void release(short code) {
+            if (code <= 0 || --refs[code] > 0) {
+                return;
+            }
+            codes.remove(values.get(code));
+            values.set(code, null);
+            freeCodes.push(code);
+        }
+
+        void clear() {
+            codes.clear();
+            values.subList(1, values.size()).clear();
+            refs = new int[16];
+            freeCodes.clear();
+        }
+
+        int size() {
+            return codes.size();
+        }
+
+        /**
+         * 查询编码：空值返回-1（不过滤），未出现过的值返回-2
+         */
+        short lookup(String value) {
+            if (value == null || value.isEmpty()) {
+                return -1;
+            }
+            Short code = codes.get(value);
+            return code != null ? code : -2;
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZONE).toInstant().toEpochMilli() : 0L;
+    }
+}
@@ -0,0 +1,84 @@
+package com.personal.system.log.index;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 日志分词器
+ * 英文/数字按连续字符切词并转小写，中文按相邻两字切分（二元分词），无需词典即可支持中文检索
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public final class LogTokenizer {
+
+    /**
+     * 单个词的最大长度，超长的词（如base64、token）截断，避免撑大词典
+     */
+    private static final int MAX_TOKEN_LENGTH = 32;
+
+    private LogTokenizer() {
+    }
+
+    /**
+     * 对文本分词，返回去重后的词集合
+     *
+     * @param text 文本
+     * @param maxTokens 最多返回的词数量
+     * @param tokens 输出集合
+     */
+    public static void tokenize(String text, int maxTokens, Set<String> tokens) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length && tokens.size() < maxTokens) {
+            char c = text.charAt(i);
+            if (isWordChar(c)) {
+                int start = i;
+                while (i < length && isWordChar(text.charAt(i))) {
+                    i++;
+                }
+                if (i - start >= 2) {
+                    int end = Math.min(i, start + MAX_TOKEN_LENGTH);
+                    tokens.add(text.substring(start, end).toLowerCase());
+                }
+            } else if (isCjk(c)) {
+                int start = i;
+                while (i < length && isCjk(text.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    tokens.add(String.valueOf(c));
+                } else {
+                    for (int j = start; j < i - 1 && tokens.size() < maxTokens; j++) {
+                        tokens.add(text.substring(j, j + 2));
+                    }
+                }
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * 对查询关键词分词
+     *
+     * @param keyword 关键词
+     * @return 词集合（按出现顺序）
+     */
+    public static Set<String> tokenizeQuery(String keyword) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(keyword, 64, tokens);
+        return tokens;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isCjk(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN;
+    }
+}
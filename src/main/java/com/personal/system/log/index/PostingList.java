@@ -0,0 +1,107 @@
+package com.personal.system.log.index;
+
+import java.util.Arrays;
+
+/**
+ * 压缩倒排列表
+ * 文档序号严格递增追加，按差值（delta）+ 变长整数（varint）编码，常见情况下每个文档只占1字节
+ * 非线程安全，由 {@link LogSearchIndex} 统一加锁
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+final class PostingList {
+
+    private byte[] data = new byte[4];
+    private int byteSize;
+    private int count;
+    private int lastOrdinal = -1;
+
+    /**
+     * 追加文档序号（必须大于已有的最大序号）
+     */
+    void add(int ordinal) {
+        if (ordinal <= lastOrdinal) {
+            return;
+        }
+        int delta = ordinal - lastOrdinal;
+        lastOrdinal = ordinal;
+        count++;
+        if (byteSize + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length + (data.length >> 1), byteSize + 5));
+        }
+        while ((delta & ~0x7F) != 0) {
+            data[byteSize++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        data[byteSize++] = (byte) delta;
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * 解码为升序的文档序号数组
+     */
+    int[] toArray() {
+        int[] result = new int[count];
+        int pos = 0;
+        int value = -1;
+        for (int i = 0; i < count; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += delta;
+            result[i] = value;
+        }
+        return result;
+    }
+
+    /**
+     * 与升序候选数组求交集（顺序解码，无需完整展开）
+     *
+     * @param candidates 升序候选序号
+     * @param candidateSize 有效候选数量
+     * @return 交集后的有效数量（结果原地写回candidates）
+     */
+    int retainAll(int[] candidates, int candidateSize) {
+        int pos = 0;
+        int value = -1;
+        int decoded = 0;
+        int kept = 0;
+        int index = 0;
+        while (index < candidateSize && decoded < count) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += delta;
+            decoded++;
+            while (index < candidateSize && candidates[index] < value) {
+                index++;
+            }
+            if (index < candidateSize && candidates[index] == value) {
+                candidates[kept++] = value;
+                index++;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * 占用的字节数（估算内存用）
+     */
+    int byteSize() {
+        return data.length;
+    }
+}
@@ -0,0 +1,71 @@
+package com.personal.system.log.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.personal.system.log.entity.ErrorFingerprint;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 错误指纹Mapper接口
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Mapper
+public interface ErrorFingerprintMapper extends BaseMapper<ErrorFingerprint> {
+
+    /**
+     * 记录一次错误：指纹不存在时插入，存在时累加次数并刷新最近出现时间
+     *
+     * @param fingerprint 错误指纹
+     * @return 影响行数
+     */
+    @Insert("""
+        INSERT INTO error_fingerprint (fingerprint, log_type, platform_code, task_code, normalized_message,
+                                       sample_message, last_log_id, occurrence_count, first_seen, last_seen)
+        VALUES (#{fingerprint}, #{logType}, #{platformCode}, #{taskCode}, #{normalizedMessage},
+                #{sampleMessage}, #{lastLogId}, 1, #{lastSeen}, #{lastSeen})
+        ON DUPLICATE KEY UPDATE
+            occurrence_count = occurrence_count + 1,
+            last_log_id = VALUES(last_log_id),
+            last_seen = GREATEST(last_seen, VALUES(last_seen))
+    """)
+    int upsertOccurrence(ErrorFingerprint fingerprint);
+
+    /**
+     * 查询错误分组（最近出现的在前）
+     *
+     * @param logType 日志类型，可为空
+     * @param platformCode 平台代码，可为空
+     * @param since 只返回该时间之后仍出现过的错误，可为空
+     * @param limit 限制数量
+     * @return 错误分组列表
+     */
+    @Select("""
+        <script>
+        SELECT * FROM error_fingerprint
+        <where>
+          <if test="logType != null and logType != ''">AND log_type = #{logType}</if>
+          <if test="platformCode != null and platformCode != ''">AND platform_code = #{platformCode}</if>
+          <if test="since != null">AND last_seen &gt;= #{since}</if>
+        </where>
+        ORDER BY last_seen DESC
+        LIMIT #{limit}
+        </script>
+    """)
+    List<ErrorFingerprint> selectGroups(@Param("logType") String logType, @Param("platformCode") String platformCode, @Param("since") LocalDateTime since, @Param("limit") int limit);
+
+    /**
+     * 根据指纹查询
+     *
+     * @param fingerprint 错误指纹
+     * @return 错误分组
+     */
+    @Select("SELECT * FROM error_fingerprint WHERE fingerprint = #{fingerprint}")
+    ErrorFingerprint selectByFingerprint(@Param("fingerprint") String fingerprint);
+}
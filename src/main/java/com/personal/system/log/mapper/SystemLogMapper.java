@@ -1,10 +1,14 @@
 package com.personal.system.log.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.personal.system.log.dto.LogQueryDTO;
 import com.personal.system.log.entity.SystemLog;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -93,4 +97,29 @@ public interface SystemLogMapper extends BaseMapper<SystemLog> {
      */
     @Select("SELECT COUNT(*) FROM system_log WHERE status = #{status} AND created_at >= #{startTime} AND created_at <= #{endTime}")
     long countByStatusAndTimeRange(@Param("status") String status, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 按条件流式读取日志（按ID升序）
+     * fetchSize = Integer.MIN_VALUE 时MySQL驱动逐行返回结果，不会一次性加载到内存
+     * 调用方必须在事务内消费Cursor，并在使用完毕后关闭
+     *
+     * @param query 查询条件
+     * @return 日志游标
+     */
+    @Select("""
+        <script>
+        SELECT * FROM system_log
+        <where>
+          <if test="query.logType != null and query.logType != ''">AND log_type = #{query.logType}</if>
+          <if test="query.platformCode != null and query.platformCode != ''">AND platform_code = #{query.platformCode}</if>
+          <if test="query.taskCode != null and query.taskCode != ''">AND task_code = #{query.taskCode}</if>
+          <if test="query.status != null and query.status != ''">AND status = #{query.status}</if>
+          <if test="query.startTime != null">AND created_at &gt;= #{query.startTime}</if>
+          <if test="query.endTime != null">AND created_at &lt;= #{query.endTime}</if>
+        </where>
+        ORDER BY id ASC
+        </script>
+    """)
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<SystemLog> streamByQuery(@Param("query") LogQueryDTO query);
 }
@@ -0,0 +1,140 @@
+package com.personal.system.log.service;
+
+import com.personal.system.log.entity.SystemLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 日志异步写入器
+ * 日志先放入有界队列，由后台线程按批次写入数据库，调用方不等待数据库。
+ * 队列满时直接丢弃并计数，宁可少记访问日志也不拖慢业务请求；应用关闭时写完队列中剩余的日志。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Service
+public class AsyncLogWriter {
+
+    @Value("${app.log.async.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.log.async.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Autowired
+    private SystemLogService logService;
+
+    private final BlockingQueue<SystemLog> queue;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public AsyncLogWriter(@Value("${app.log.async.queue-capacity:10000}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::runLoop, "log-async-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * 提交日志，不阻塞
+     *
+     * @return 是否入队成功（队列已满时返回false，日志被丢弃）
+     */
+    public boolean submit(SystemLog systemLog) {
+        if (queue.offer(systemLog)) {
+            return true;
+        }
+        long count = dropped.incrementAndGet();
+        // 避免队列持续满载时刷屏
+        if ((count & (count - 1)) == 0) {
+            log.warn("日志写入队列已满，已丢弃 {} 条日志", count);
+        }
+        return false;
+    }
+
+    private void runLoop() {
+        List<SystemLog> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                SystemLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, Math.max(batchSize, 1) - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<SystemLog> batch) {
+        try {
+            logService.saveLogs(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            log.error("批量写入日志失败，数量：{}，原因：{}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 当前排队的日志数量
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * 队列已满被丢弃的日志数量
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * 写入统计
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "queued", queue.size(),
+                "written", written.get(),
+                "dropped", dropped.get(),
+                "failed", failed.get()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // 不中断写入线程，避免打断正在进行的数据库写入；线程最多等待一个flush间隔后发现关闭标记
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        if (!queue.isEmpty()) {
+            log.warn("应用关闭时仍有 {} 条日志未写入", queue.size());
+        }
+    }
+}
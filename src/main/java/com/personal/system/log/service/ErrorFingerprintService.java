@@ -0,0 +1,79 @@
+package com.personal.system.log.service;
+
+import com.personal.system.log.entity.ErrorFingerprint;
+import com.personal.system.log.entity.SystemLog;
+import com.personal.system.log.mapper.ErrorFingerprintMapper;
+import com.personal.system.log.util.ErrorFingerprintUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 错误聚合服务
+ * 失败日志写入时计算错误指纹并累加到错误指纹表，排查问题时按指纹分组查看，而不是翻阅成千上万条相似日志
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Service
+public class ErrorFingerprintService implements SystemLogListener {
+
+    /**
+     * 样例错误信息最大长度
+     */
+    private static final int MAX_SAMPLE_LENGTH = 4000;
+
+    @Autowired
+    private ErrorFingerprintMapper fingerprintMapper;
+
+    @Override
+    public void onLogSaved(SystemLog systemLog) {
+        String status = systemLog.getStatus();
+        if (status == null || "success".equals(status) || "pending".equals(status)) {
+            return;
+        }
+        recordError(systemLog);
+    }
+
+    /**
+     * 记录一条失败日志
+     */
+    public void recordError(SystemLog systemLog) {
+        String message = systemLog.getErrorMessage() != null ? systemLog.getErrorMessage() : systemLog.getLogTitle();
+        String normalized = ErrorFingerprintUtil.normalize(message);
+        String fingerprint = ErrorFingerprintUtil.fingerprint(
+                systemLog.getLogType(), systemLog.getPlatformCode(), normalized);
+
+        String sample = message != null && message.length() > MAX_SAMPLE_LENGTH
+                ? message.substring(0, MAX_SAMPLE_LENGTH)
+                : message;
+        ErrorFingerprint occurrence = new ErrorFingerprint()
+                .setFingerprint(fingerprint)
+                .setLogType(systemLog.getLogType())
+                .setPlatformCode(systemLog.getPlatformCode())
+                .setTaskCode(systemLog.getTaskCode())
+                .setNormalizedMessage(normalized)
+                .setSampleMessage(sample)
+                .setLastLogId(systemLog.getId())
+                .setLastSeen(systemLog.getCreatedAt() != null ? systemLog.getCreatedAt() : LocalDateTime.now());
+        fingerprintMapper.upsertOccurrence(occurrence);
+    }
+
+    /**
+     * 查询错误分组
+     */
+    public List<ErrorFingerprint> getErrorGroups(String logType, String platformCode, LocalDateTime since, int limit) {
+        return fingerprintMapper.selectGroups(logType, platformCode, since, Math.max(1, Math.min(limit, 500)));
+    }
+
+    /**
+     * 根据指纹获取错误分组
+     */
+    public ErrorFingerprint getByFingerprint(String fingerprint) {
+        return fingerprintMapper.selectByFingerprint(fingerprint);
+    }
+}
@@ -0,0 +1,326 @@
+package com.personal.system.log.service;
+
+import com.personal.system.log.dto.LogQueryDTO;
+import com.personal.system.log.entity.SystemLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 日志实时推送服务（Server-Sent Events）
+ * 新日志写入后放入内存环形缓冲区，再由推送线程按各订阅者的过滤条件发送。
+ * 每个订阅者维护自己的读取位置，落后超过缓冲区容量的慢消费者会被断开，不会拖慢写入路径和其他订阅者。
+ * 写出在单独的写线程上进行，推送线程最多等待 write-timeout-ms：客户端停止读取（TCP缓冲区写满）时直接断开，
+ * 卡住的写操作不会占住推送线程。心跳也经由订阅者自己的推送任务写出，每个订阅者同一时间最多一个写操作。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Service
+public class LogBroadcastService implements SystemLogListener {
+
+    private final int maxSubscribers;
+
+    @Value("${app.log.stream.timeout-ms:1800000}")
+    private long emitterTimeout;
+
+    @Value("${app.log.stream.write-timeout-ms:5000}")
+    private long writeTimeoutMs;
+
+    private final SystemLog[] ring;
+    private final int mask;
+
+    /**
+     * 下一条日志的序号（已发布的日志序号为 [published - capacity, published)）
+     */
+    private volatile long published;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+
+    /**
+     * 执行实际写出；每个订阅者同一时间最多一个写操作，线程数不超过订阅数上限。
+     * 超时取消无法中断卡在Socket写入上的线程，线程全部卡住时新的写出排队并按超时断开订阅者，不会无限创建线程
+     */
+    private final ThreadPoolExecutor writers;
+
+    public LogBroadcastService(@Value("${app.log.stream.buffer-size:1024}") int bufferSize,
+                               @Value("${app.log.stream.dispatcher-threads:2}") int dispatcherThreads,
+                               @Value("${app.log.stream.max-subscribers:100}") int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 16) - 1) << 1;
+        this.ring = new SystemLog[capacity];
+        this.mask = capacity - 1;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatcherThreads, dispatcherThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "log-stream-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        AtomicInteger writerIndex = new AtomicInteger();
+        int writerThreads = Math.max(1, maxSubscribers);
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "log-stream-writer-" + writerIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.writers.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void onLogSaved(SystemLog systemLog) {
+        synchronized (ring) {
+            long sequence = published;
+            ring[(int) (sequence & mask)] = systemLog;
+            published = sequence + 1;
+        }
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * 订阅日志推送
+     *
+     * @param filter 过滤条件（日志类型、平台、任务、状态）
+     * @param lastEventId 断线重连时浏览器携带的Last-Event-ID，缓冲区内的日志会补发
+     * @param backfill 订阅时先补发缓冲区中最近的多少条匹配日志
+     * @return SSE发射器
+     */
+    public SseEmitter subscribe(LogQueryDTO filter, String lastEventId, int backfill) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("实时日志订阅数已达上限：" + maxSubscribers);
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Subscriber subscriber = new Subscriber(emitter, filter, startSequence(filter, lastEventId, backfill));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        try {
+            emitter.send(SseEmitter.event().name("connected").data(Map.of("sequence", subscriber.cursor)));
+        } catch (IOException e) {
+            close(subscriber, null);
+            return emitter;
+        }
+        schedule(subscriber);
+        log.info("新增实时日志订阅，当前订阅数：{}", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * 计算订阅起始序号：优先从Last-Event-ID续传，其次按backfill回溯，否则只推送新日志
+     */
+    private long startSequence(LogQueryDTO filter, String lastEventId, int backfill) {
+        long head = published;
+        long oldest = Math.max(0, head - ring.length);
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                long next = Long.parseLong(lastEventId.trim()) + 1;
+                if (next >= oldest && next <= head) {
+                    return next;
+                }
+            } catch (NumberFormatException ignored) {
+                // 非法的Last-Event-ID按新订阅处理
+            }
+        }
+        if (backfill <= 0) {
+            return head;
+        }
+        // 从最新往前找到第backfill条匹配的日志
+        int matched = 0;
+        long sequence = head;
+        while (sequence > oldest && matched < backfill) {
+            SystemLog entry = ring[(int) ((sequence - 1) & mask)];
+            if (entry != null && matches(filter, entry)) {
+                matched++;
+            }
+            sequence--;
+        }
+        return sequence;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.closed && subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * 把订阅者读取位置之后的日志推送出去，有待发送的心跳时先发送心跳
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.pingPending) {
+                subscriber.pingPending = false;
+                send(subscriber, SseEmitter.event().comment("ping"));
+            }
+            long head = published;
+            while (!subscriber.closed && subscriber.cursor < head) {
+                long sequence = subscriber.cursor;
+                if (head - sequence > ring.length) {
+                    close(subscriber, "消费过慢，已落后 " + (head - sequence) + " 条日志");
+                    return;
+                }
+                SystemLog entry = ring[(int) (sequence & mask)];
+                // 读取期间该位置可能已被覆盖，再次确认
+                if (published - sequence > ring.length) {
+                    close(subscriber, "消费过慢，日志已被覆盖");
+                    return;
+                }
+                subscriber.cursor = sequence + 1;
+                if (entry != null && matches(subscriber.filter, entry)) {
+                    send(subscriber, SseEmitter.event()
+                            .id(String.valueOf(sequence))
+                            .name("log")
+                            .data(entry));
+                }
+                head = published;
+            }
+        } catch (TimeoutException e) {
+            close(subscriber, "写出超过 " + writeTimeoutMs + "ms，客户端未读取");
+        } catch (IOException | IllegalStateException e) {
+            close(subscriber, null);
+        } finally {
+            subscriber.scheduled.set(false);
+            if (!subscriber.closed && (subscriber.cursor < published || subscriber.pingPending)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * 定期发送心跳，及时发现已断开的连接
+     * 只标记待发送，由订阅者的推送任务写出，不与日志推送并发写同一个连接
+     */
+    @Scheduled(fixedDelay = 15000)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.pingPending = true;
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * 在写线程上写出，最多等待 write-timeout-ms
+     *
+     * @throws TimeoutException 写出超时（客户端停止读取）
+     */
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException, TimeoutException {
+        Future<?> write = writers.submit(() -> {
+            subscriber.emitter.send(event);
+            return null;
+        });
+        try {
+            write.get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("推送线程被中断", e);
+        } catch (TimeoutException e) {
+            write.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * 断开订阅者：推送线程不再处理该订阅者，通知和关闭连接在写线程上异步进行（可能要等卡住的写操作结束）
+     */
+    private void close(Subscriber subscriber, String reason) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+        if (reason != null) {
+            log.warn("断开实时日志订阅：{}", reason);
+        }
+        writers.execute(() -> {
+            try {
+                if (reason != null) {
+                    subscriber.emitter.send(SseEmitter.event().name("dropped").data(reason));
+                }
+                subscriber.emitter.complete();
+            } catch (Exception ignored) {
+                // 连接已断开
+            }
+        });
+    }
+
+    private static boolean matches(LogQueryDTO filter, SystemLog entry) {
+        if (filter == null) {
+            return true;
+        }
+        return matches(filter.getLogType(), entry.getLogType())
+                && matches(filter.getPlatformCode(), entry.getPlatformCode())
+                && matches(filter.getTaskCode(), entry.getTaskCode())
+                && matches(filter.getStatus(), entry.getStatus());
+    }
+
+    private static boolean matches(String expected, String actual) {
+        return expected == null || expected.isEmpty() || expected.equals(actual);
+    }
+
+    /**
+     * 推送状态
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "subscribers", subscribers.size(),
+                "bufferSize", ring.length,
+                "published", published
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Subscriber> current = new ArrayList<>(subscribers);
+        current.forEach(subscriber -> close(subscriber, null));
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    /**
+     * 订阅者
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final LogQueryDTO filter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean closed;
+        private volatile boolean pingPending;
+
+        Subscriber(SseEmitter emitter, LogQueryDTO filter, long cursor) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.cursor = cursor;
+        }
+    }
+}
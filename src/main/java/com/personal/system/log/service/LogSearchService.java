@@ -0,0 +1,164 @@
+package com.personal.system.log.service;
+
+import com.personal.system.log.dto.LogQueryDTO;
+import com.personal.system.log.entity.SystemLog;
+import com.personal.system.log.index.LogSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 日志全文检索服务
+ * 在内存中维护日志标题、内容、错误信息的倒排索引：写入路径增量更新，启动时从数据库重建
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Service
+public class LogSearchService implements SystemLogListener {
+
+    @Value("${app.log.search.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 启动时重建最近多少天的日志
+     */
+    @Value("${app.log.search.rebuild-days:30}")
+    private int rebuildDays;
+
+    @Value("${app.log.search.segment-size:50000}")
+    private int segmentSize;
+
+    /**
+     * 最多保留的段数，超过后淘汰最旧的段（索引最多容纳 segment-size * max-segments 条日志）
+     */
+    @Value("${app.log.search.max-segments:8}")
+    private int maxSegments;
+
+    @Value("${app.log.search.max-limit:500}")
+    private int maxLimit;
+
+    @Autowired
+    private SystemLogService logService;
+
+    private volatile LogSearchIndex index;
+
+    /**
+     * 重建期间写入的日志暂存在这里，重建完成后补入新索引
+     */
+    private final Map<Long, SystemLog> pendingDuringRebuild = new ConcurrentHashMap<>();
+    private volatile boolean rebuilding;
+
+    /**
+     * 应用启动后在后台线程重建索引，不阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("日志全文检索未启用");
+            return;
+        }
+        Thread thread = new Thread(this::rebuild, "log-search-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 从数据库重建索引
+     */
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+        rebuilding = true;
+        pendingDuringRebuild.clear();
+        try {
+            LogSearchIndex newIndex = new LogSearchIndex(segmentSize, maxSegments);
+            LogQueryDTO query = new LogQueryDTO();
+            query.setStartTime(LocalDateTime.now().minusDays(rebuildDays));
+
+            Set<Long> pendingIds = pendingDuringRebuild.keySet();
+            long count = logService.streamLogs(query, systemLog -> {
+                // 重建期间已通过写入路径收到的日志，统一在最后补入，避免重复
+                if (!pendingIds.contains(systemLog.getId())) {
+                    newIndex.add(systemLog);
+                }
+            });
+
+            synchronized (pendingDuringRebuild) {
+                List<SystemLog> pending = new ArrayList<>(pendingDuringRebuild.values());
+                pending.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+                pending.forEach(newIndex::add);
+                index = newIndex;
+                rebuilding = false;
+                pendingDuringRebuild.clear();
+            }
+
+            log.info("日志索引重建完成，日志数：{}，耗时：{}ms，统计：{}",
+                    count, System.currentTimeMillis() - startTime, newIndex.stats());
+        } catch (Exception e) {
+            rebuilding = false;
+            pendingDuringRebuild.clear();
+            log.error("日志索引重建失败：{}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onLogSaved(SystemLog systemLog) {
+        if (!enabled) {
+            return;
+        }
+        if (rebuilding) {
+            synchronized (pendingDuringRebuild) {
+                if (rebuilding) {
+                    pendingDuringRebuild.put(systemLog.getId(), systemLog);
+                    return;
+                }
+            }
+        }
+        LogSearchIndex current = index;
+        if (current != null) {
+            current.add(systemLog);
+        }
+    }
+
+    /**
+     * 检索日志
+     *
+     * @param keyword 关键词，空格分隔的多个词为AND关系
+     * @param filter 过滤条件
+     * @param limit 最多返回数量
+     * @return 匹配的日志（最新的在前）
+     */
+    public List<SystemLog> search(String keyword, LogQueryDTO filter, int limit) {
+        LogSearchIndex current = index;
+        if (current == null) {
+            throw new IllegalStateException("日志索引尚未就绪，请稍后重试");
+        }
+        int effectiveLimit = Math.max(1, Math.min(limit, maxLimit));
+        List<Long> ids = current.search(keyword, filter, effectiveLimit);
+        return logService.getLogsByIds(ids);
+    }
+
+    /**
+     * 索引状态
+     */
+    public Map<String, Object> getIndexStats() {
+        LogSearchIndex current = index;
+        Map<String, Object> stats = current != null ? new HashMap<>(current.stats()) : new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", current != null);
+        stats.put("rebuilding", rebuilding);
+        return stats;
+    }
+}
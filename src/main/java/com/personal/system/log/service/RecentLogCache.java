@@ -0,0 +1,259 @@
+package com.personal.system.log.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.personal.system.log.entity.SystemLog;
+import com.personal.system.log.mapper.SystemLogMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 最近日志缓存
+ * 按日志类型、平台分别在内存中保留最新的N条日志，写入时同步更新。
+ * 首页和小偏移量的分页查询直接从缓存返回，只有翻到更深的历史时才查询数据库。
+ * 缓存按固定间隔从数据库重新加载一次，以便多实例部署时也能看到其他实例写入的日志。
+ * 类型和平台来自查询参数，缓冲区数量有上限，长时间未查询的缓冲区会被淘汰；返回给调用方的是副本。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class RecentLogCache implements SystemLogListener {
+
+    private static final String TYPE_PREFIX = "type:";
+    private static final String PLATFORM_PREFIX = "platform:";
+
+    private static final Comparator<SystemLog> NEWEST_FIRST = Comparator
+            .comparing(SystemLog::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(SystemLog::getId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .reversed();
+
+    @Value("${app.log.recent-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.log.recent-cache.capacity:200}")
+    private int capacity;
+
+    @Value("${app.log.recent-cache.resync-seconds:60}")
+    private long resyncSeconds;
+
+    /**
+     * 最多缓存的维度数（日志类型+平台）
+     */
+    @Value("${app.log.recent-cache.max-keys:64}")
+    private long maxKeys;
+
+    /**
+     * 维度多久未被查询后淘汰
+     */
+    @Value("${app.log.recent-cache.idle-minutes:30}")
+    private long idleMinutes;
+
+    @Autowired
+    private SystemLogMapper logMapper;
+
+    private Cache<String, Buffer> buffers;
+
+    @PostConstruct
+    public void init() {
+        this.buffers = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    @Override
+    public void onLogSaved(SystemLog systemLog) {
+        if (!enabled) {
+            return;
+        }
+        SystemLog snapshot = snapshot(systemLog);
+        if (systemLog.getLogType() != null) {
+            Buffer buffer = buffers.getIfPresent(TYPE_PREFIX + systemLog.getLogType());
+            if (buffer != null) {
+                buffer.add(snapshot);
+            }
+        }
+        if (systemLog.getPlatformCode() != null) {
+            Buffer buffer = buffers.getIfPresent(PLATFORM_PREFIX + systemLog.getPlatformCode());
+            if (buffer != null) {
+                buffer.add(snapshot);
+            }
+        }
+    }
+
+    /**
+     * 从缓存获取指定类型的日志
+     *
+     * @return 日志列表；超出缓存范围时返回null，调用方应回源数据库
+     */
+    public List<SystemLog> getByLogType(String logType, int limit, int offset) {
+        return get(TYPE_PREFIX + logType, limit, offset);
+    }
+
+    /**
+     * 从缓存获取指定平台的日志
+     *
+     * @return 日志列表；超出缓存范围时返回null，调用方应回源数据库
+     */
+    public List<SystemLog> getByPlatformCode(String platformCode, int limit, int offset) {
+        return get(PLATFORM_PREFIX + platformCode, limit, offset);
+    }
+
+    private List<SystemLog> get(String key, int limit, int offset) {
+        if (!enabled || limit <= 0 || offset < 0 || offset + limit > capacity) {
+            return null;
+        }
+        Buffer buffer = buffers.get(key, k -> new Buffer());
+        if (buffer.tryBeginReload()) {
+            reload(key, buffer);
+        }
+        return buffer.page(limit, offset);
+    }
+
+    /**
+     * 从数据库加载最新的N条日志
+     */
+    private void reload(String key, Buffer buffer) {
+        String value = key.substring(key.indexOf(':') + 1);
+        try {
+            List<SystemLog> latest = key.startsWith(TYPE_PREFIX)
+                    ? logMapper.selectByLogType(value, capacity, 0)
+                    : logMapper.selectByPlatformCode(value, capacity, 0);
+            buffer.finishReload(latest);
+            log.debug("最近日志缓存已从数据库加载：{}，数量：{}", key, latest.size());
+        } catch (RuntimeException e) {
+            buffer.abortReload();
+            throw e;
+        }
+    }
+
+    /**
+     * 复制一份日志存入缓存，去掉不落库的字段，保证与数据库查询结果一致
+     */
+    private static SystemLog snapshot(SystemLog systemLog) {
+        SystemLog copy = new SystemLog();
+        BeanUtils.copyProperties(systemLog, copy, "apiKeyMasked", "promptTokens", "completionTokens", "totalTokens");
+        return copy;
+    }
+
+    /**
+     * 返回给调用方的副本，避免调用方修改缓存中的对象
+     */
+    private static SystemLog copy(SystemLog systemLog) {
+        SystemLog copy = new SystemLog();
+        BeanUtils.copyProperties(systemLog, copy);
+        return copy;
+    }
+
+    /**
+     * 单个维度的环形缓冲区（最新的在前）
+     */
+    private final class Buffer {
+
+        private final ArrayDeque<SystemLog> entries = new ArrayDeque<>();
+
+        /**
+         * 加载期间收到的新日志，加载完成后合并
+         */
+        private final List<SystemLog> addedDuringReload = new ArrayList<>();
+
+        /**
+         * 数据库中的日志总数不足capacity时为true，此时缓存即为全部历史
+         */
+        private boolean complete;
+        private long loadedAt;
+        private boolean reloading;
+
+        synchronized void add(SystemLog systemLog) {
+            if (reloading) {
+                addedDuringReload.add(systemLog);
+            }
+            if (loadedAt == 0) {
+                return;
+            }
+            entries.addFirst(systemLog);
+            while (entries.size() > capacity) {
+                entries.removeLast();
+                complete = false;
+            }
+        }
+
+        /**
+         * 缓存过期且没有其他线程在加载时开始加载；其他线程加载期间继续使用旧数据
+         */
+        synchronized boolean tryBeginReload() {
+            boolean stale = loadedAt == 0 || System.currentTimeMillis() - loadedAt > resyncSeconds * 1000;
+            if (!stale || reloading) {
+                return false;
+            }
+            reloading = true;
+            addedDuringReload.clear();
+            return true;
+        }
+
+        synchronized void abortReload() {
+            reloading = false;
+            addedDuringReload.clear();
+        }
+
+        synchronized void finishReload(List<SystemLog> latest) {
+            List<SystemLog> merged = new ArrayList<>(latest.size() + addedDuringReload.size());
+            Set<Long> ids = new HashSet<>();
+            for (SystemLog systemLog : addedDuringReload) {
+                if (ids.add(systemLog.getId())) {
+                    merged.add(systemLog);
+                }
+            }
+            for (SystemLog systemLog : latest) {
+                if (ids.add(systemLog.getId())) {
+                    merged.add(systemLog);
+                }
+            }
+            merged.sort(NEWEST_FIRST);
+
+            entries.clear();
+            for (int i = 0; i < merged.size() && i < capacity; i++) {
+                entries.addLast(merged.get(i));
+            }
+            complete = merged.size() < capacity;
+            reloading = false;
+            addedDuringReload.clear();
+            loadedAt = System.currentTimeMillis();
+        }
+
+        synchronized List<SystemLog> page(int limit, int offset) {
+            if (loadedAt == 0) {
+                return null;
+            }
+            if (offset + limit > entries.size() && !complete) {
+                return null;
+            }
+            List<SystemLog> result = new ArrayList<>(Math.min(limit, entries.size()));
+            int index = 0;
+            for (SystemLog systemLog : entries) {
+                if (index >= offset + limit) {
+                    break;
+                }
+                if (index >= offset) {
+                    result.add(copy(systemLog));
+                }
+                index++;
+            }
+            return result;
+        }
+    }
+}
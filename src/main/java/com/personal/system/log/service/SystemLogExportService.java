@@ -0,0 +1,178 @@
+package com.personal.system.log.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.personal.system.log.dto.LogQueryDTO;
+import com.personal.system.log.entity.SystemLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 系统日志导出服务
+ * 通过数据库游标逐行读取并直接写入输出流，导出任意数量的日志时堆内存占用保持平稳
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Service
+public class SystemLogExportService {
+
+    /**
+     * 支持的导出格式
+     */
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    /**
+     * 每写出多少行刷新一次输出流，让客户端尽早收到数据
+     */
+    private static final int FLUSH_INTERVAL = 500;
+
+    private static final DateTimeFormatter CSV_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] CSV_HEADER = {
+            "id", "created_at", "log_type", "log_category", "platform_code", "task_code", "status",
+            "model", "duration", "log_title", "error_message", "log_content", "user_id",
+            "request_method", "request_url", "request_params", "response_status", "ip_address"
+    };
+
+    @Autowired
+    private SystemLogService logService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 校验导出格式
+     *
+     * @param format 导出格式
+     * @return 规范化后的格式
+     * @throws IllegalArgumentException 如果不支持该格式
+     */
+    public String normalizeFormat(String format) {
+        String normalized = format == null ? FORMAT_NDJSON : format.trim().toLowerCase();
+        if (!FORMAT_NDJSON.equals(normalized) && !FORMAT_CSV.equals(normalized)) {
+            throw new IllegalArgumentException("不支持的导出格式：" + format);
+        }
+        return normalized;
+    }
+
+    /**
+     * 导出日志到输出流
+     *
+     * @param query 查询条件
+     * @param format 导出格式（ndjson/csv）
+     * @param gzip 是否gzip压缩
+     * @param out 目标输出流（由调用方负责关闭）
+     * @return 导出的日志数量
+     */
+    public long export(LogQueryDTO query, String format, boolean gzip, OutputStream out) throws IOException {
+        String normalized = normalizeFormat(format);
+        long startTime = System.currentTimeMillis();
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        long count;
+        try {
+            count = FORMAT_CSV.equals(normalized) ? writeCsv(query, target) : writeNdjson(query, target);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (target instanceof GZIPOutputStream gzipOut) {
+            gzipOut.finish();
+        }
+        target.flush();
+
+        log.info("导出日志完成，格式：{}，压缩：{}，数量：{}，耗时：{}ms",
+                normalized, gzip, count, System.currentTimeMillis() - startTime);
+        return count;
+    }
+
+    private long writeNdjson(LogQueryDTO query, OutputStream out) throws IOException {
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            long[] written = {0};
+            long count = logService.streamLogs(query, log -> {
+                try {
+                    writer.write(log);
+                    if (++written[0] % FLUSH_INTERVAL == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (count > 0) {
+                // 末行补换行，保证每条记录都以换行结尾
+                writer.flush();
+                out.write('\n');
+            }
+            return count;
+        }
+    }
+
+    private long writeCsv(LogQueryDTO query, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // UTF-8 BOM，保证Excel打开时中文不乱码
+        writer.write('\uFEFF');
+        writeCsvRow(writer, (Object[]) CSV_HEADER);
+
+        long[] written = {0};
+        long count = logService.streamLogs(query, log -> {
+            try {
+                String createdAt = log.getCreatedAt() != null ? CSV_TIME_FORMATTER.format(log.getCreatedAt()) : null;
+                writeCsvRow(writer, log.getId(), createdAt, log.getLogType(), log.getLogCategory(),
+                        log.getPlatformCode(), log.getTaskCode(), log.getStatus(), log.getModel(),
+                        log.getDuration(), log.getLogTitle(), log.getErrorMessage(), log.getLogContent(),
+                        log.getUserId(), log.getRequestMethod(), log.getRequestUrl(), log.getRequestParams(),
+                        log.getResponseStatus(), log.getIpAddress());
+                if (++written[0] % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * 写出一行CSV（RFC 4180转义）
+     */
+    private void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                    || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
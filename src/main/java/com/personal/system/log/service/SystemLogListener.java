@@ -0,0 +1,21 @@
+package com.personal.system.log.service;
+
+import com.personal.system.log.entity.SystemLog;
+
+/**
+ * 日志写入监听器
+ * 日志成功写入数据库后回调（此时ID和创建时间均已填充），用于维护索引、统计等派生数据
+ * 回调在写入线程中同步执行，实现需保持轻量，耗时操作应自行异步处理
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public interface SystemLogListener {
+
+    /**
+     * 日志已保存
+     *
+     * @param log 已保存的日志
+     */
+    void onLogSaved(SystemLog log);
+}
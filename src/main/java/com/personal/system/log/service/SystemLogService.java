@@ -1,14 +1,24 @@
 package com.personal.system.log.service;
 
+import com.personal.system.log.dto.LogQueryDTO;
 import com.personal.system.log.entity.SystemLog;
 import com.personal.system.log.mapper.SystemLogMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * 系统日志服务
@@ -23,11 +33,48 @@ public class SystemLogService {
     @Autowired
     private SystemLogMapper logMapper;
 
+    /**
+     * 日志写入监听器（延迟获取，避免监听器依赖本服务时产生循环依赖）
+     */
+    @Autowired
+    private ObjectProvider<SystemLogListener> listenerProvider;
+
+    private volatile List<SystemLogListener> listeners;
+
+    @Autowired
+    private RecentLogCache recentLogCache;
+
     /**
      * 保存日志
      */
     public void saveLog(SystemLog log) {
         logMapper.insert(log);
+        notifyListeners(log);
+    }
+
+    /**
+     * 批量保存日志（一次批量INSERT），保存后逐条通知监听器
+     */
+    public void saveLogs(List<SystemLog> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        logMapper.insert(logs);
+        logs.forEach(this::notifyListeners);
+    }
+
+    /**
+     * 根据ID列表获取日志，返回顺序与ID顺序一致
+     */
+    public List<SystemLog> getLogsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, SystemLog> logMap = new HashMap<>();
+        for (SystemLog log : logMapper.selectBatchIds(ids)) {
+            logMap.put(log.getId(), log);
+        }
+        return ids.stream().map(logMap::get).filter(Objects::nonNull).toList();
     }
 
     /**
@@ -41,14 +88,16 @@ public class SystemLogService {
      * 根据日志类型获取日志列表
      */
     public List<SystemLog> getLogsByType(String logType, int limit, int offset) {
-        return logMapper.selectByLogType(logType, limit, offset);
+        List<SystemLog> cached = recentLogCache.getByLogType(logType, limit, offset);
+        return cached != null ? cached : logMapper.selectByLogType(logType, limit, offset);
     }
 
     /**
      * 根据平台代码获取日志列表
      */
     public List<SystemLog> getLogsByPlatformCode(String platformCode, int limit, int offset) {
-        return logMapper.selectByPlatformCode(platformCode, limit, offset);
+        List<SystemLog> cached = recentLogCache.getByPlatformCode(platformCode, limit, offset);
+        return cached != null ? cached : logMapper.selectByPlatformCode(platformCode, limit, offset);
     }
 
     /**
@@ -62,7 +111,29 @@ public class SystemLogService {
      * 获取最近的日志列表
      */
     public List<SystemLog> getRecentLogs(int limit, int offset) {
-        return logMapper.selectByLogType("keepalive", limit, offset);
+        return getLogsByType("keepalive", limit, offset);
+    }
+
+    /**
+     * 按条件逐行遍历日志
+     * 基于数据库游标，内存占用与结果集大小无关，适用于导出、索引重建等全量场景
+     *
+     * @param query 查询条件
+     * @param consumer 每行日志的处理逻辑
+     * @return 遍历的日志数量
+     */
+    @Transactional(readOnly = true)
+    public long streamLogs(LogQueryDTO query, Consumer<SystemLog> consumer) {
+        long count = 0;
+        try (Cursor<SystemLog> cursor = logMapper.streamByQuery(query)) {
+            for (SystemLog log : cursor) {
+                consumer.accept(log);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("关闭日志游标失败", e);
+        }
+        return count;
     }
 
     /**
@@ -111,4 +182,26 @@ public class SystemLogService {
         LocalDateTime endTime = LocalDateTime.now();
         return logMapper.countByStatusAndTimeRange("failed", startTime, endTime);
     }
+
+    /**
+     * 通知日志写入监听器，单个监听器异常不影响日志写入和其他监听器
+     */
+    private void notifyListeners(SystemLog systemLog) {
+        for (SystemLogListener listener : getListeners()) {
+            try {
+                listener.onLogSaved(systemLog);
+            } catch (Exception e) {
+                log.warn("日志监听器 {} 处理失败：{}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private List<SystemLogListener> getListeners() {
+        List<SystemLogListener> current = listeners;
+        if (current == null) {
+            current = listenerProvider.orderedStream().toList();
+            listeners = current;
+        }
+        return current;
+    }
 }
@@ -0,0 +1,82 @@
+package com.personal.system.log.util;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * 错误指纹工具类
+ * 把错误信息中随每次调用变化的部分（ID、时间、数字、IP等）替换为占位符，
+ * 同类错误得到相同的规范化文本和指纹，便于去重聚合
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public final class ErrorFingerprintUtil {
+
+    /**
+     * 参与规范化的错误信息最大长度
+     */
+    private static final int MAX_MESSAGE_LENGTH = 2000;
+
+    /**
+     * 规范化文本的最大长度（入库字段长度）
+     */
+    private static final int MAX_NORMALIZED_LENGTH = 1000;
+
+    private static final Pattern UUID = Pattern.compile(
+            "\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern TIMESTAMP = Pattern.compile(
+            "\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?(Z|[+-]\\d{2}:?\\d{2})?");
+    private static final Pattern IP = Pattern.compile("\\b\\d{1,3}(\\.\\d{1,3}){3}(:\\d+)?\\b");
+    private static final Pattern HEX = Pattern.compile("\\b(0x)?[0-9a-fA-F]{8,}\\b");
+    /**
+     * 字母数字混合的长串，通常是请求ID、Trace ID、Key片段
+     */
+    private static final Pattern TOKEN_ID = Pattern.compile("\\b(?=[A-Za-z_-]*\\d)(?=[0-9_-]*[A-Za-z])[A-Za-z0-9_-]{12,}\\b");
+    /**
+     * 数字，但保留三位HTTP状态码（1xx-5xx），不同状态码属于不同错误
+     */
+    private static final Pattern NUMBER = Pattern.compile("\\b(?![1-5]\\d{2}\\b)\\d+(\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private ErrorFingerprintUtil() {
+    }
+
+    /**
+     * 规范化错误信息
+     *
+     * @param message 原始错误信息
+     * @return 规范化后的文本
+     */
+    public static String normalize(String message) {
+        if (message == null || message.isBlank()) {
+            return "";
+        }
+        String text = message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+        text = UUID.matcher(text).replaceAll("<uuid>");
+        text = TIMESTAMP.matcher(text).replaceAll("<time>");
+        text = IP.matcher(text).replaceAll("<ip>");
+        text = HEX.matcher(text).replaceAll("<hex>");
+        text = TOKEN_ID.matcher(text).replaceAll("<id>");
+        text = NUMBER.matcher(text).replaceAll("<n>");
+        text = WHITESPACE.matcher(text).replaceAll(" ").trim();
+        return text.length() > MAX_NORMALIZED_LENGTH ? text.substring(0, MAX_NORMALIZED_LENGTH) : text;
+    }
+
+    /**
+     * 计算错误指纹
+     *
+     * @param logType 日志类型
+     * @param platformCode 平台代码
+     * @param normalizedMessage 规范化后的错误信息
+     * @return 32位十六进制指纹
+     */
+    public static String fingerprint(String logType, String platformCode, String normalizedMessage) {
+        String source = (logType != null ? logType : "") + '|'
+                + (platformCode != null ? platformCode : "") + '|'
+                + normalizedMessage;
+        return DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+    }
+}
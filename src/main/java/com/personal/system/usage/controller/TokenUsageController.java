@@ -0,0 +1,65 @@
+package com.personal.system.usage.controller;
+
+import com.personal.system.usage.dto.TokenUsageSummaryDTO;
+import com.personal.system.usage.entity.TokenUsage;
+import com.personal.system.usage.service.TokenUsageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI Token用量统计 Controller
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/system/usage")
+public class TokenUsageController {
+
+    @Autowired
+    private TokenUsageService usageService;
+
+    /**
+     * 按维度汇总Token用量
+     * 示例：/api/v1/system/usage/summary?groupBy=key&startDate=2026-10-01&endDate=2026-10-19&platformCode=zhipu
+     *
+     * @param groupBy 汇总维度：day（默认）/platform/model/key
+     * @param startDate 开始日期，默认最近7天
+     * @param endDate 结束日期，默认今天
+     * @param platformCode 平台代码，可选
+     */
+    @GetMapping("/summary")
+    public Map<String, Object> getSummary(
+            @RequestParam(defaultValue = "day") String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String platformCode) {
+
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusDays(6);
+        List<TokenUsageSummaryDTO> summary = usageService.getUsageSummary(groupBy, start, end, platformCode);
+        return Map.of("code", 200, "message", "success", "data", summary);
+    }
+
+    /**
+     * 查询Token用量明细（日期 + 平台 + 模型 + Key）
+     */
+    @GetMapping("/details")
+    public Map<String, Object> getDetails(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String platformCode) {
+
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusDays(6);
+        List<TokenUsage> details = usageService.getUsageDetails(start, end, platformCode);
+        return Map.of("code", 200, "message", "success", "data", details);
+    }
+}
@@ -0,0 +1,43 @@
+package com.personal.system.usage.dto;
+
+import lombok.Data;
+
+/**
+ * Token用量汇总结果
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Data
+public class TokenUsageSummaryDTO {
+
+    /**
+     * 汇总维度的值（日期、平台、模型或掩码Key）
+     */
+    private String dimension;
+
+    /**
+     * 调用次数
+     */
+    private Long callCount;
+
+    /**
+     * 成功次数
+     */
+    private Long successCount;
+
+    /**
+     * 提示词Token数
+     */
+    private Long promptTokens;
+
+    /**
+     * 生成Token数
+     */
+    private Long completionTokens;
+
+    /**
+     * 总Token数
+     */
+    private Long totalTokens;
+}
@@ -0,0 +1,98 @@
+package com.personal.system.usage.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * AI Token用量台账实体类
+ * 按 日期 + 平台 + 模型 + 掩码Key 汇总，每个维度组合每天一行
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("ai_token_usage")
+public class TokenUsage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 主键ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 统计日期
+     */
+    @TableField("usage_date")
+    private LocalDate usageDate;
+
+    /**
+     * 平台代码：zhipu, doubao
+     */
+    @TableField("platform_code")
+    private String platformCode;
+
+    /**
+     * 模型名称
+     */
+    @TableField("model")
+    private String model;
+
+    /**
+     * 掩码后的API Key
+     */
+    @TableField("api_key_masked")
+    private String apiKeyMasked;
+
+    /**
+     * 调用次数
+     */
+    @TableField("call_count")
+    private Long callCount;
+
+    /**
+     * 成功次数
+     */
+    @TableField("success_count")
+    private Long successCount;
+
+    /**
+     * 提示词Token数
+     */
+    @TableField("prompt_tokens")
+    private Long promptTokens;
+
+    /**
+     * 生成Token数
+     */
+    @TableField("completion_tokens")
+    private Long completionTokens;
+
+    /**
+     * 总Token数
+     */
+    @TableField("total_tokens")
+    private Long totalTokens;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "created_at", fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "updated_at", fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,153 @@
+package com.personal.system.usage.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.personal.system.usage.dto.TokenUsageSummaryDTO;
+import com.personal.system.usage.entity.TokenUsage;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * AI Token用量台账Mapper接口
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Mapper
+public interface TokenUsageMapper extends BaseMapper<TokenUsage> {
+
+    /**
+     * 累加用量（同一 日期+平台+模型+Key 不存在时插入，存在时原子累加）
+     *
+     * @param usage 本次增量
+     * @return 影响行数
+     */
+    @Insert("""
+        INSERT INTO ai_token_usage (usage_date, platform_code, model, api_key_masked, call_count, success_count,
+                                    prompt_tokens, completion_tokens, total_tokens, created_at, updated_at)
+        VALUES (#{usageDate}, #{platformCode}, #{model}, #{apiKeyMasked}, #{callCount}, #{successCount},
+                #{promptTokens}, #{completionTokens}, #{totalTokens}, NOW(), NOW())
+        ON DUPLICATE KEY UPDATE
+            call_count = call_count + VALUES(call_count),
+            success_count = success_count + VALUES(success_count),
+            prompt_tokens = prompt_tokens + VALUES(prompt_tokens),
+            completion_tokens = completion_tokens + VALUES(completion_tokens),
+            total_tokens = total_tokens + VALUES(total_tokens),
+            updated_at = NOW()
+    """)
+    int upsertUsage(TokenUsage usage);
+
+    /**
+     * 查询用量明细
+     *
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @param platformCode 平台代码，为空时查询所有平台
+     * @return 用量明细
+     */
+    @Select("""
+        <script>
+        SELECT * FROM ai_token_usage
+        WHERE usage_date &gt;= #{startDate} AND usage_date &lt;= #{endDate}
+          <if test="platformCode != null and platformCode != ''">AND platform_code = #{platformCode}</if>
+        ORDER BY usage_date DESC, platform_code, model, api_key_masked
+        </script>
+    """)
+    List<TokenUsage> selectByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("platformCode") String platformCode);
+
+    /**
+     * 按日期汇总用量
+     *
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @param platformCode 平台代码，为空时统计所有平台
+     * @return 汇总结果
+     */
+    @Select("""
+        <script>
+        SELECT DATE_FORMAT(usage_date, '%Y-%m-%d') AS dimension,
+               SUM(call_count) AS call_count, SUM(success_count) AS success_count,
+               SUM(prompt_tokens) AS prompt_tokens, SUM(completion_tokens) AS completion_tokens,
+               SUM(total_tokens) AS total_tokens
+        FROM ai_token_usage
+        WHERE usage_date &gt;= #{startDate} AND usage_date &lt;= #{endDate}
+          <if test="platformCode != null and platformCode != ''">AND platform_code = #{platformCode}</if>
+        GROUP BY DATE_FORMAT(usage_date, '%Y-%m-%d')
+        ORDER BY dimension
+        </script>
+    """)
+    List<TokenUsageSummaryDTO> sumByDay(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("platformCode") String platformCode);
+
+    /**
+     * 按平台汇总用量
+     *
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @param platformCode 平台代码，为空时统计所有平台
+     * @return 汇总结果
+     */
+    @Select("""
+        <script>
+        SELECT platform_code AS dimension,
+               SUM(call_count) AS call_count, SUM(success_count) AS success_count,
+               SUM(prompt_tokens) AS prompt_tokens, SUM(completion_tokens) AS completion_tokens,
+               SUM(total_tokens) AS total_tokens
+        FROM ai_token_usage
+        WHERE usage_date &gt;= #{startDate} AND usage_date &lt;= #{endDate}
+          <if test="platformCode != null and platformCode != ''">AND platform_code = #{platformCode}</if>
+        GROUP BY platform_code
+        ORDER BY total_tokens DESC
+        </script>
+    """)
+    List<TokenUsageSummaryDTO> sumByPlatform(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("platformCode") String platformCode);
+
+    /**
+     * 按模型汇总用量
+     *
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @param platformCode 平台代码，为空时统计所有平台
+     * @return 汇总结果
+     */
+    @Select("""
+        <script>
+        SELECT model AS dimension,
+               SUM(call_count) AS call_count, SUM(success_count) AS success_count,
+               SUM(prompt_tokens) AS prompt_tokens, SUM(completion_tokens) AS completion_tokens,
+               SUM(total_tokens) AS total_tokens
+        FROM ai_token_usage
+        WHERE usage_date &gt;= #{startDate} AND usage_date &lt;= #{endDate}
+          <if test="platformCode != null and platformCode != ''">AND platform_code = #{platformCode}</if>
+        GROUP BY model
+        ORDER BY total_tokens DESC
+        </script>
+    """)
+    List<TokenUsageSummaryDTO> sumByModel(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("platformCode") String platformCode);
+
+    /**
+     * 按API Key汇总用量
+     *
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @param platformCode 平台代码，为空时统计所有平台
+     * @return 汇总结果
+     */
+    @Select("""
+        <script>
+        SELECT api_key_masked AS dimension,
+               SUM(call_count) AS call_count, SUM(success_count) AS success_count,
+               SUM(prompt_tokens) AS prompt_tokens, SUM(completion_tokens) AS completion_tokens,
+               SUM(total_tokens) AS total_tokens
+        FROM ai_token_usage
+        WHERE usage_date &gt;= #{startDate} AND usage_date &lt;= #{endDate}
+          <if test="platformCode != null and platformCode != ''">AND platform_code = #{platformCode}</if>
+        GROUP BY api_key_masked
+        ORDER BY total_tokens DESC
+        </script>
+    """)
+    List<TokenUsageSummaryDTO> sumByApiKey(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("platformCode") String platformCode);
+}
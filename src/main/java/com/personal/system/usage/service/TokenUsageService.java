@@ -0,0 +1,90 @@
+package com.personal.system.usage.service;
+
+import com.personal.system.log.entity.SystemLog;
+import com.personal.system.log.service.SystemLogListener;
+import com.personal.system.usage.dto.TokenUsageSummaryDTO;
+import com.personal.system.usage.entity.TokenUsage;
+import com.personal.system.usage.mapper.TokenUsageMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * AI Token用量台账服务
+ * 在日志写入路径上把每次AI调用的Token消耗累加到按天汇总的台账表，报表直接读取汇总后的整数，无需解析日志JSON
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Service
+public class TokenUsageService implements SystemLogListener {
+
+    @Autowired
+    private TokenUsageMapper usageMapper;
+
+    @Override
+    public void onLogSaved(SystemLog systemLog) {
+        if (systemLog.getPlatformCode() == null || systemLog.getApiKeyMasked() == null) {
+            return;
+        }
+        recordUsage(systemLog);
+    }
+
+    /**
+     * 记录一次AI调用的用量
+     */
+    public void recordUsage(SystemLog systemLog) {
+        LocalDate usageDate = systemLog.getCreatedAt() != null
+                ? systemLog.getCreatedAt().toLocalDate()
+                : LocalDate.now();
+
+        TokenUsage usage = new TokenUsage()
+                .setUsageDate(usageDate)
+                .setPlatformCode(systemLog.getPlatformCode())
+                .setModel(systemLog.getModel() != null ? systemLog.getModel() : "")
+                .setApiKeyMasked(systemLog.getApiKeyMasked())
+                .setCallCount(1L)
+                .setSuccessCount("success".equals(systemLog.getStatus()) ? 1L : 0L)
+                .setPromptTokens(toLong(systemLog.getPromptTokens()))
+                .setCompletionTokens(toLong(systemLog.getCompletionTokens()))
+                .setTotalTokens(toLong(systemLog.getTotalTokens()));
+        usageMapper.upsertUsage(usage);
+    }
+
+    /**
+     * 查询用量明细
+     */
+    public List<TokenUsage> getUsageDetails(LocalDate startDate, LocalDate endDate, String platformCode) {
+        return usageMapper.selectByDateRange(startDate, endDate, platformCode);
+    }
+
+    /**
+     * 按维度汇总用量
+     *
+     * @param groupBy 汇总维度：day/platform/model/key
+     * @throws IllegalArgumentException 如果不支持该维度
+     */
+    public List<TokenUsageSummaryDTO> getUsageSummary(String groupBy, LocalDate startDate, LocalDate endDate,
+                                                     String platformCode) {
+        switch (groupBy) {
+            case "day":
+                return usageMapper.sumByDay(startDate, endDate, platformCode);
+            case "platform":
+                return usageMapper.sumByPlatform(startDate, endDate, platformCode);
+            case "model":
+                return usageMapper.sumByModel(startDate, endDate, platformCode);
+            case "key":
+                return usageMapper.sumByApiKey(startDate, endDate, platformCode);
+            default:
+                throw new IllegalArgumentException("不支持的汇总维度：" + groupBy);
+        }
+    }
+
+    private static long toLong(Integer value) {
+        return value != null ? value : 0L;
+    }
+}
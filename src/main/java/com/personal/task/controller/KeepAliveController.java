@@ -3,12 +3,19 @@ package com.personal.task.controller;
 import com.personal.system.config.entity.SystemConfig;
 import com.personal.system.log.entity.SystemLog;
 import com.personal.task.service.KeepAliveSchedulerService;
+import com.personal.task.service.executor.FanOutResult;
+import com.personal.task.service.executor.ai.probe.KeepAliveProbeRegistry;
+import com.personal.task.service.health.ApiKeyActivityTracker;
+import com.personal.task.service.health.ApiKeyHealthRegistry;
+import com.personal.task.service.queue.TaskRun;
+import com.personal.task.service.queue.TaskRunQueue;
 import com.personal.system.config.service.SystemConfigService;
 import com.personal.system.log.service.SystemLogService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +40,18 @@ public class KeepAliveController {
     @Autowired
     private KeepAliveSchedulerService schedulerService;
 
+    @Autowired
+    private ApiKeyHealthRegistry keyHealthRegistry;
+
+    @Autowired
+    private TaskRunQueue runQueue;
+
+    @Autowired
+    private ApiKeyActivityTracker activityTracker;
+
+    @Autowired
+    private KeepAliveProbeRegistry probeRegistry;
+
     /**
      * 获取AI平台配置列表
      */
@@ -128,24 +147,118 @@ public class KeepAliveController {
 
     /**
      * 手动触发保活任务
+     * 任务放入运行队列（高于定时任务的优先级）后立即返回runId，执行结果通过 /api/task-runs/{runId} 查询；
+     * 同一平台已有手动保活在排队时返回排队中的那一次
      */
     @PostMapping("/trigger/{platform}")
     public Map<String, Object> triggerKeepAlive(@PathVariable String platform) {
-        try {
-            SystemLog log = schedulerService.manualTrigger(platform);
-            return Map.of(
-                "code", 200,
-                "message", "保活任务执行完成",
-                "data", Map.of(
-                    "status", log.getStatus(),
-                    "logTitle", log.getLogTitle(),
-                    "duration", log.getDuration()
-                )
-            );
-        } catch (Exception e) {
-            log.error("手动触发保活任务失败：{}", e.getMessage(), e);
-            return Map.of("code", 500, "message", "保活任务执行失败：" + e.getMessage());
+        TaskRunQueue.Submission submission = runQueue.submit("manual:keepalive:" + platform, TaskRun.Priority.MANUAL,
+                "手动保活 " + platform,
+                () -> {
+                    SystemLog systemLog = schedulerService.manualTrigger(platform);
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("status", systemLog.getStatus());
+                    result.put("logTitle", systemLog.getLogTitle());
+                    result.put("duration", systemLog.getDuration());
+                    return "success".equals(systemLog.getStatus()) ? result : new TaskRun.FailedResult(result);
+                },
+                null);
+        if (submission.run() == null) {
+            return Map.of("code", 429, "message", "任务队列已满，请稍后再试");
+        }
+        return Map.of(
+            "code", 200,
+            "message", submission.isAccepted() ? "保活任务已提交" : "相同的保活任务正在排队",
+            "data", submission.run().toMap()
+        );
+    }
+
+    /**
+     * 手动触发所有已启用平台的保活（各平台并行执行）
+     * 与单平台触发一样放入运行队列后立即返回runId，各平台结果通过 /api/task-runs/{runId} 查询；
+     * 已有全部保活在排队或执行时返回那一次，不会重复调用平台
+     */
+    @PostMapping("/trigger-all")
+    public Map<String, Object> triggerAll() {
+        TaskRunQueue.Submission submission = runQueue.submit("manual:keepalive:all", TaskRun.Priority.MANUAL,
+                "手动保活 全部平台",
+                () -> {
+                    List<FanOutResult<List<SystemLog>>> results = schedulerService.manualTriggerAll();
+                    boolean allSuccess = true;
+                    List<Map<String, Object>> platforms = new ArrayList<>();
+                    for (FanOutResult<List<SystemLog>> result : results) {
+                        Map<String, Object> item = new HashMap<>();
+                        item.put("platform", result.name());
+                        item.put("result", result.status());
+                        item.put("duration", result.durationMs());
+                        item.put("error", result.error());
+                        allSuccess &= result.isSuccess();
+                        if (result.value() != null) {
+                            long success = result.value().stream()
+                                    .filter(systemLog -> "success".equals(systemLog.getStatus())).count();
+                            allSuccess &= success == result.value().size();
+                            item.put("keys", result.value().size());
+                            item.put("success", success);
+                            item.put("logs", result.value().stream().map(systemLog -> Map.of(
+                                    "status", systemLog.getStatus(),
+                                    "logTitle", systemLog.getLogTitle(),
+                                    "duration", systemLog.getDuration() != null ? systemLog.getDuration() : 0
+                            )).toList());
+                        }
+                        platforms.add(item);
+                    }
+                    return allSuccess ? platforms : new TaskRun.FailedResult(platforms);
+                },
+                null, true);
+        if (submission.run() == null) {
+            return Map.of("code", 429, "message", "任务队列已满，请稍后再试");
+        }
+        return Map.of(
+            "code", 200,
+            "message", submission.isAccepted() ? "保活任务已提交" : "全部平台保活正在排队或执行",
+            "data", submission.run().toMap()
+        );
+    }
+
+    /**
+     * 获取API Key真实调用活动：各Key最近一次真实调用时间，以及各平台因此跳过的保活次数
+     */
+    @GetMapping("/key-activity")
+    public Map<String, Object> getKeyActivity() {
+        return Map.of("code", 200, "message", "success", "data", activityTracker.getActivity());
+    }
+
+    /**
+     * 获取保活探测方式统计：各平台各探测方式的调用次数、成功率、平均耗时和Token消耗
+     */
+    @GetMapping("/probe-stats")
+    public Map<String, Object> getProbeStats() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("strategies", probeRegistry.getStrategies());
+        data.put("stats", probeRegistry.getStats());
+        return Map.of("code", 200, "message", "success", "data", data);
+    }
+
+    /**
+     * 获取API Key健康状态（熔断器）
+     *
+     * @param platform 平台代码，可选
+     */
+    @GetMapping("/key-health")
+    public Map<String, Object> getKeyHealth(@RequestParam(required = false) String platform) {
+        return Map.of("code", 200, "message", "success", "data", keyHealthRegistry.getStates(platform));
+    }
+
+    /**
+     * 重置API Key健康状态（立即解除熔断）
+     */
+    @PostMapping("/key-health/{platform}/{keyHash}/reset")
+    public Map<String, Object> resetKeyHealth(@PathVariable String platform, @PathVariable String keyHash) {
+        if (!keyHealthRegistry.reset(platform, keyHash)) {
+            return Map.of("code", 404, "message", "Key健康状态不存在");
         }
+        log.info("{} 平台Key {} 健康状态已重置", platform, keyHash);
+        return Map.of("code", 200, "message", "Key健康状态已重置");
     }
 
     /**
@@ -1,9 +1,17 @@
 package com.personal.task.controller;
 
+import com.personal.common.util.TimeWindowUtil;
 import com.personal.task.entity.ScheduledTask;
 import com.personal.system.log.entity.SystemLog;
 import com.personal.task.service.KeepAliveSchedulerService;
 import com.personal.task.service.ScheduledTaskService;
+import com.personal.task.service.TaskExecutionRecorder;
+import com.personal.task.service.TaskExecutionStatsService;
+import com.personal.task.service.TaskSchedulingEngine;
+import com.personal.task.service.cluster.TaskLockService;
+import com.personal.task.service.queue.TaskRun;
+import com.personal.task.service.queue.TaskRunQueue;
+import com.personal.task.service.cluster.TaskShardService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -25,6 +33,24 @@ public class ScheduledTaskController {
     @Autowired
     private KeepAliveSchedulerService keepAliveSchedulerService;
 
+    @Autowired
+    private TaskLockService taskLockService;
+
+    @Autowired
+    private TaskShardService taskShardService;
+
+    @Autowired
+    private TaskExecutionStatsService executionStatsService;
+
+    @Autowired
+    private TaskExecutionRecorder executionRecorder;
+
+    @Autowired
+    private TaskSchedulingEngine schedulingEngine;
+
+    @Autowired
+    private TaskRunQueue runQueue;
+
     /**
      * 获取所有任务列表
      */
@@ -46,6 +72,70 @@ public class ScheduledTaskController {
         return Map.of("code", 200, "message", "success", "data", stats);
     }
 
+    /**
+     * 获取调度计划：每个已注册任务的调度方式、相位偏移和之后的触发时间
+     *
+     * @param count 每个任务预览的触发次数
+     */
+    @GetMapping("/schedule")
+    public Map<String, Object> getSchedule(@RequestParam(defaultValue = "5") int count) {
+        int limited = Math.max(1, Math.min(count, 50));
+        return Map.of("code", 200, "message", "success", "data", schedulingEngine.getSchedule(limited));
+    }
+
+    /**
+     * 获取任务执行耗时分位数（毫秒）和失败率
+     * 示例：/api/scheduled-tasks/execution-stats?window=24h&taskCode=zhipu_keepalive
+     *
+     * @param window 统计窗口，支持 30m / 24h / 7d 格式
+     * @param taskCode 任务代码，为空时统计所有任务
+     */
+    @GetMapping("/execution-stats")
+    public Map<String, Object> getExecutionStats(@RequestParam(defaultValue = "24h") String window,
+                                                 @RequestParam(required = false) String taskCode) {
+        long windowMillis;
+        try {
+            windowMillis = TimeWindowUtil.parseMillis(window);
+        } catch (IllegalArgumentException e) {
+            return Map.of("code", 400, "message", e.getMessage());
+        }
+        Map<String, Object> data = new java.util.LinkedHashMap<>();
+        data.put("windowSeconds", windowMillis / 1000);
+        data.put("tasks", executionStatsService.getStats(taskCode, windowMillis));
+        data.put("recorder", executionRecorder.getStats());
+        return Map.of("code", 200, "message", "success", "data", data);
+    }
+
+    /**
+     * 获取任务锁状态（多节点调度）
+     */
+    @GetMapping("/locks")
+    public Map<String, Object> getLocks() {
+        Map<String, Object> data = new java.util.LinkedHashMap<>();
+        data.put("nodeId", taskLockService.getNodeId());
+        data.put("locks", taskLockService.getLocks());
+        return Map.of("code", 200, "message", "success", "data", data);
+    }
+
+    /**
+     * 获取分片调度状态：存活节点及各任务的归属节点
+     */
+    @GetMapping("/cluster")
+    public Map<String, Object> getCluster() {
+        Map<String, Object> data = new java.util.LinkedHashMap<>();
+        data.put("nodeId", taskLockService.getNodeId());
+        data.put("shardEnabled", taskShardService.isEnabled());
+        data.put("nodes", taskShardService.getLiveNodes());
+        Map<String, String> owners = new java.util.LinkedHashMap<>();
+        if (taskShardService.isEnabled()) {
+            for (ScheduledTask task : taskService.getEnabledTasks()) {
+                owners.put(task.getTaskCode(), taskShardService.ownerOf(task.getTaskCode()));
+            }
+        }
+        data.put("owners", owners);
+        return Map.of("code", 200, "message", "success", "data", data);
+    }
+
     /**
      * 根据任务代码获取任务详情
      */
@@ -173,39 +263,37 @@ public class ScheduledTaskController {
 
     /**
      * 手动触发任务执行（用于测试）
+     * 任务放入运行队列后立即返回runId，执行结果通过 /api/task-runs/{runId} 查询
      */
     @PostMapping("/{taskCode}/trigger")
     public Map<String, Object> triggerTask(@PathVariable String taskCode) {
         log.info("手动触发任务：{}", taskCode);
 
-        try {
-            // 从taskCode中提取platformCode
-            // 例如：zhipu_keepalive -> zhipu, doubao_keepalive -> doubao
-            String platformCode = taskCode.replace("_keepalive", "");
-
-            // 调用保活服务执行任务
-            SystemLog result = keepAliveSchedulerService.manualTrigger(platformCode);
+        // 从taskCode中提取platformCode
+        // 例如：zhipu_keepalive -> zhipu, doubao_keepalive -> doubao
+        String platformCode = taskCode.replace("_keepalive", "");
 
-            // 返回执行结果
-            return Map.of(
-                    "code", 200,
-                    "message", "任务执行成功",
-                    "data", Map.of(
-                            "taskCode", taskCode,
-                            "platformCode", platformCode,
-                            "status", result.getStatus(),
-                            "logTitle", result.getLogTitle(),
-                            "duration", result.getDuration()
-                    )
-            );
-        } catch (Exception e) {
-            log.error("手动触发任务失败：{}", e.getMessage(), e);
-            return Map.of(
-                    "code", 500,
-                    "message", "任务执行失败: " + e.getMessage(),
-                    "data", Map.of("taskCode", taskCode)
-            );
+        TaskRunQueue.Submission submission = runQueue.submit("manual:keepalive:" + platformCode, TaskRun.Priority.MANUAL,
+                "手动触发 " + taskCode,
+                () -> {
+                    SystemLog result = keepAliveSchedulerService.manualTrigger(platformCode);
+                    Map<String, Object> data = new java.util.HashMap<>();
+                    data.put("taskCode", taskCode);
+                    data.put("platformCode", platformCode);
+                    data.put("status", result.getStatus());
+                    data.put("logTitle", result.getLogTitle());
+                    data.put("duration", result.getDuration());
+                    return "success".equals(result.getStatus()) ? data : new TaskRun.FailedResult(data);
+                },
+                null);
+        if (submission.run() == null) {
+            return Map.of("code", 429, "message", "任务队列已满，请稍后再试", "data", Map.of("taskCode", taskCode));
         }
+        return Map.of(
+                "code", 200,
+                "message", submission.isAccepted() ? "任务已提交" : "相同的任务正在排队",
+                "data", submission.run().toMap()
+        );
     }
 
     /**
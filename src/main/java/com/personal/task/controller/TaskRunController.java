@@ -0,0 +1,65 @@
+package com.personal.task.controller;
+
+import com.personal.task.service.queue.TaskRun;
+import com.personal.task.service.queue.TaskRunQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 任务运行队列 Controller
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@RestController
+@RequestMapping("/api/task-runs")
+public class TaskRunController {
+
+    @Autowired
+    private TaskRunQueue runQueue;
+
+    /**
+     * 队列状态和最近的运行
+     *
+     * @param limit 返回的最近运行数量
+     */
+    @GetMapping
+    public Map<String, Object> getQueue(@RequestParam(defaultValue = "20") int limit) {
+        return Map.of("code", 200, "message", "success", "data", runQueue.getStats(Math.max(0, Math.min(limit, 200))));
+    }
+
+    /**
+     * 查询运行状态
+     */
+    @GetMapping("/{runId}")
+    public Map<String, Object> getRun(@PathVariable String runId) {
+        TaskRun run = runQueue.getRun(runId);
+        if (run == null) {
+            return Map.of("code", 404, "message", "运行不存在或已过期");
+        }
+        return Map.of("code", 200, "message", "success", "data", run.toMap());
+    }
+
+    /**
+     * 取消运行：排队中的直接移出队列，执行中的中断执行线程
+     */
+    @PostMapping("/{runId}/cancel")
+    public Map<String, Object> cancelRun(@PathVariable String runId) {
+        TaskRun run = runQueue.getRun(runId);
+        if (run == null) {
+            return Map.of("code", 404, "message", "运行不存在或已过期");
+        }
+        if (run.isFinished()) {
+            return Map.of("code", 400, "message", "运行已结束", "data", run.toMap());
+        }
+        runQueue.cancel(run, TaskRun.CANCELLED);
+        return Map.of("code", 200, "message", "已取消", "data", run.toMap());
+    }
+}
@@ -0,0 +1,47 @@
+package com.personal.task.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 调度节点实体类
+ * 分片模式下每个节点定期写入心跳，心跳未过期的节点组成一致性哈希环
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Data
+@TableName("scheduler_node")
+public class SchedulerNode implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 节点ID
+     */
+    @TableId("node_id")
+    private String nodeId;
+
+    /**
+     * 主机名
+     */
+    @TableField("host")
+    private String host;
+
+    /**
+     * 节点启动时间
+     */
+    @TableField("started_at")
+    private LocalDateTime startedAt;
+
+    /**
+     * 最近一次心跳时间（数据库时间）
+     */
+    @TableField("last_heartbeat")
+    private LocalDateTime lastHeartbeat;
+}
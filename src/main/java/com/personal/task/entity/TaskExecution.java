@@ -0,0 +1,74 @@
+package com.personal.task.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 任务执行记录实体类
+ * 每次任务执行一行，只保存统计需要的字段，详细内容见 system_log
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Data
+@Accessors(chain = true)
+@TableName("task_execution")
+public class TaskExecution implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 主键ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 任务代码
+     */
+    @TableField("task_code")
+    private String taskCode;
+
+    /**
+     * 平台代码
+     */
+    @TableField("platform_code")
+    private String platformCode;
+
+    /**
+     * 开始时间
+     */
+    @TableField("started_at")
+    private LocalDateTime startedAt;
+
+    /**
+     * 耗时（毫秒）
+     */
+    @TableField("duration_ms")
+    private Integer durationMs;
+
+    /**
+     * 执行状态：success / failed / timeout
+     */
+    @TableField("status")
+    private String status;
+
+    /**
+     * 使用的API Key序号（轮换模式），所有Key模式或未调用时为空
+     */
+    @TableField("key_index")
+    private Integer keyIndex;
+
+    /**
+     * 消耗的Token总数
+     */
+    @TableField("total_tokens")
+    private Integer totalTokens;
+}
@@ -0,0 +1,47 @@
+package com.personal.task.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 任务锁实体类
+ * 多节点部署时每个任务的每次触发只由持有锁的节点执行；锁带租约，持有者宕机后租约到期即可被其他节点获取
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Data
+@TableName("task_lock")
+public class TaskLock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 锁名称（任务代码）
+     */
+    @TableId("lock_name")
+    private String lockName;
+
+    /**
+     * 持有者节点ID
+     */
+    @TableField("locked_by")
+    private String lockedBy;
+
+    /**
+     * 加锁时间（数据库时间）
+     */
+    @TableField("locked_at")
+    private LocalDateTime lockedAt;
+
+    /**
+     * 租约到期时间（数据库时间）
+     */
+    @TableField("lock_until")
+    private LocalDateTime lockUntil;
+}
@@ -0,0 +1,12 @@
+package com.personal.task.event;
+
+/**
+ * 定时任务配置变更事件（创建、更新、启用/禁用、删除）
+ * 调度引擎收到后从数据库重新加载该任务并重新注册触发器
+ *
+ * @param taskCode 任务代码
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public record ScheduledTaskChangedEvent(String taskCode) {
+}
@@ -7,6 +7,7 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -67,6 +68,23 @@ public interface ScheduledTaskMapper extends BaseMapper<ScheduledTask> {
                              @Param("failedIncrement") Integer failedIncrement,
                              @Param("status") String status);
 
+    /**
+     * 累加任务执行统计（批量合并后的增量）
+     */
+    @Update("UPDATE scheduled_task SET " +
+            "total_executions = total_executions + #{successIncrement} + #{failedIncrement}, " +
+            "success_executions = success_executions + #{successIncrement}, " +
+            "failed_executions = failed_executions + #{failedIncrement}, " +
+            "last_execution_time = #{lastExecutionTime}, " +
+            "last_execution_status = #{status}, " +
+            "updated_at = NOW() " +
+            "WHERE task_code = #{taskCode}")
+    int addExecutionStats(@Param("taskCode") String taskCode,
+                          @Param("successIncrement") long successIncrement,
+                          @Param("failedIncrement") long failedIncrement,
+                          @Param("lastExecutionTime") LocalDateTime lastExecutionTime,
+                          @Param("status") String status);
+
     /**
      * 更新任务配置
      */
@@ -0,0 +1,56 @@
+package com.personal.task.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.personal.task.entity.SchedulerNode;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 调度节点Mapper
+ * 心跳时间和存活判断都使用数据库时间
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Mapper
+public interface SchedulerNodeMapper extends BaseMapper<SchedulerNode> {
+
+    /**
+     * 写入心跳：节点不存在时注册
+     */
+    @Insert("""
+        INSERT INTO scheduler_node (node_id, host, started_at, last_heartbeat)
+        VALUES (#{nodeId}, #{host}, NOW(3), NOW(3))
+        ON DUPLICATE KEY UPDATE last_heartbeat = NOW(3)
+    """)
+    int heartbeat(@Param("nodeId") String nodeId, @Param("host") String host);
+
+    /**
+     * 查询心跳未过期的节点
+     *
+     * @param ttlMs 心跳有效期（毫秒）
+     */
+    @Select("""
+        SELECT node_id, host, started_at, last_heartbeat FROM scheduler_node
+        WHERE last_heartbeat > DATE_SUB(NOW(3), INTERVAL #{ttlMs} * 1000 MICROSECOND)
+        ORDER BY node_id
+    """)
+    List<SchedulerNode> findLive(@Param("ttlMs") long ttlMs);
+
+    /**
+     * 删除心跳早已过期的节点记录
+     */
+    @Delete("DELETE FROM scheduler_node WHERE last_heartbeat < DATE_SUB(NOW(3), INTERVAL #{expiredMs} * 1000 MICROSECOND)")
+    int deleteExpired(@Param("expiredMs") long expiredMs);
+
+    /**
+     * 节点下线
+     */
+    @Delete("DELETE FROM scheduler_node WHERE node_id = #{nodeId}")
+    int deleteByNodeId(@Param("nodeId") String nodeId);
+}
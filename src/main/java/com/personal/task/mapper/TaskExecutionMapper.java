@@ -0,0 +1,48 @@
+package com.personal.task.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.personal.task.entity.TaskExecution;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+
+/**
+ * 任务执行记录Mapper
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Mapper
+public interface TaskExecutionMapper extends BaseMapper<TaskExecution> {
+
+    /**
+     * 流式读取窗口内的执行记录，逐行交给handler处理，不把结果集整体加载到内存
+     * fetchSize = Integer.MIN_VALUE 让MySQL驱动逐行返回
+     *
+     * @param taskCode 任务代码，为空时读取所有任务
+     * @param since 起始时间
+     */
+    @Select("""
+        <script>
+        SELECT task_code, duration_ms, status FROM task_execution
+        WHERE started_at &gt;= #{since}
+        <if test="taskCode != null and taskCode != ''">AND task_code = #{taskCode}</if>
+        </script>
+    """)
+    @Options(fetchSize = Integer.MIN_VALUE)
+    @ResultType(TaskExecution.class)
+    void streamSince(@Param("taskCode") String taskCode, @Param("since") LocalDateTime since,
+                     ResultHandler<TaskExecution> handler);
+
+    /**
+     * 删除过期的执行记录
+     */
+    @Delete("DELETE FROM task_execution WHERE started_at < #{before} LIMIT #{limit}")
+    int deleteBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
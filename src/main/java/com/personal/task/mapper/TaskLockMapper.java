@@ -0,0 +1,73 @@
+package com.personal.task.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.personal.task.entity.TaskLock;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 任务锁Mapper
+ * 所有时间比较都使用数据库时间（NOW(3)），不依赖各节点的本地时钟
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Mapper
+public interface TaskLockMapper extends BaseMapper<TaskLock> {
+
+    /**
+     * 锁不存在时创建并持有
+     *
+     * @return 1表示获取成功，0表示锁已存在
+     */
+    @Insert("""
+        INSERT IGNORE INTO task_lock (lock_name, locked_by, locked_at, lock_until)
+        VALUES (#{lockName}, #{owner}, NOW(3), DATE_ADD(NOW(3), INTERVAL #{leaseMs} * 1000 MICROSECOND))
+    """)
+    int insertIfAbsent(@Param("lockName") String lockName, @Param("owner") String owner, @Param("leaseMs") long leaseMs);
+
+    /**
+     * 锁已过期时抢占
+     * 不可重入：本节点上一次触发仍持有锁（排队或执行中）时同样获取失败，避免释放时连带释放上一次的锁
+     *
+     * @return 1表示获取成功
+     */
+    @Update("""
+        UPDATE task_lock
+        SET locked_by = #{owner}, locked_at = NOW(3), lock_until = DATE_ADD(NOW(3), INTERVAL #{leaseMs} * 1000 MICROSECOND)
+        WHERE lock_name = #{lockName} AND lock_until <= NOW(3)
+    """)
+    int acquireExpired(@Param("lockName") String lockName, @Param("owner") String owner, @Param("leaseMs") long leaseMs);
+
+    /**
+     * 续租，只有持有者且租约未过期时成功
+     */
+    @Update("""
+        UPDATE task_lock
+        SET lock_until = DATE_ADD(NOW(3), INTERVAL #{leaseMs} * 1000 MICROSECOND)
+        WHERE lock_name = #{lockName} AND locked_by = #{owner} AND lock_until > NOW(3)
+    """)
+    int renew(@Param("lockName") String lockName, @Param("owner") String owner, @Param("leaseMs") long leaseMs);
+
+    /**
+     * 释放锁：租约缩短到“加锁时间 + 最短持有时长”与当前时间中的较大者，
+     * 避免节点间触发时间略有差异时，其他节点在本次执行结束后再次执行同一次触发
+     */
+    @Update("""
+        UPDATE task_lock
+        SET lock_until = GREATEST(NOW(3), DATE_ADD(locked_at, INTERVAL #{atLeastForMs} * 1000 MICROSECOND))
+        WHERE lock_name = #{lockName} AND locked_by = #{owner}
+    """)
+    int release(@Param("lockName") String lockName, @Param("owner") String owner, @Param("atLeastForMs") long atLeastForMs);
+
+    /**
+     * 查询所有锁
+     */
+    @Select("SELECT lock_name, locked_by, locked_at, lock_until FROM task_lock ORDER BY lock_name")
+    List<TaskLock> findAll();
+}
@@ -6,20 +6,30 @@ import com.personal.task.entity.ScheduledTask;
 import com.personal.system.log.entity.SystemLog;
 import com.personal.system.config.service.SystemConfigService;
 import com.personal.system.log.service.SystemLogService;
+import com.personal.task.service.executor.FanOutExecutor;
+import com.personal.task.service.executor.FanOutResult;
 import com.personal.task.service.executor.ai.AIPlatformFactory;
 import com.personal.task.service.executor.ai.AIPlatformService;
+import com.personal.task.service.health.ApiKeyActivityTracker;
+import com.personal.task.service.health.ApiKeyHealthRegistry;
+import com.personal.task.service.invoker.TaskExecutorMethod;
+import com.personal.task.service.invoker.TaskRunContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 保活任务调度服务
- * 支持多个AI平台的保活任务
+ * 支持多个AI平台的保活任务，定时触发由 TaskSchedulingEngine 按 scheduled_task 表的cron表达式负责
  *
  * @author tendollar
  * @since 2026-01-13
@@ -43,70 +53,82 @@ public class KeepAliveSchedulerService {
     @Autowired
     private ObjectMapper objectMapper;
 
-    // 用于记录每个任务的API Key索引
-    private final Map<String, AtomicInteger> taskKeyIndexes = new java.util.concurrent.ConcurrentHashMap<>();
+    @Autowired
+    private FanOutExecutor fanOutExecutor;
+
+    @Autowired
+    private ApiKeyHealthRegistry keyHealthRegistry;
+
+    @Autowired
+    private TaskExecutionRecorder executionRecorder;
+
+    @Autowired
+    private ApiKeyActivityTracker activityTracker;
 
     /**
-     * 智谱保活定时任务
-     * Cron表达式：秒 分 时 日 月 周
-     * 每10分钟执行一次
+     * 并行保活时单个平台的超时时间
      */
-    @Scheduled(cron = "0 */10 * * * *")
-    public void zhipuKeepAliveTask() {
-        String taskCode = "zhipu_keepalive";
-        ScheduledTask task = taskService.getTaskByCode(taskCode);
-
-        // 检查任务是否存在且启用
-        if (task == null || task.getEnabled() == 0) {
-            log.debug("智谱保活任务未启用，跳过执行");
-            return;
-        }
+    @Value("${app.keepalive.fan-out.timeout-ms:30000}")
+    private long fanOutTimeoutMs;
+
+    /**
+     * 并行保活时单个平台（all_keys模式下包含该平台所有Key）的超时时间
+     */
+    @Value("${app.keepalive.fan-out.platform-timeout-ms:120000}")
+    private long platformTimeoutMs;
 
-        log.info("========== 智谱保活任务开始 ==========");
+    /**
+     * all_keys模式下平台内的默认并发数（可用系统配置 ai.{platform}.keepalive_concurrency 覆盖）
+     */
+    @Value("${app.keepalive.all-keys.concurrency:4}")
+    private int defaultKeyConcurrency;
 
-        try {
-            executeKeepAliveForPlatform("zhipu", taskCode);
-        } catch (Exception e) {
-            log.error("智谱保活任务异常：{}", e.getMessage(), e);
-            taskService.recordFailure(taskCode);
-        }
+    private static final String MODE_ROUND_ROBIN = "round_robin";
+    private static final String MODE_ALL_KEYS = "all_keys";
 
-        log.info("========== 智谱保活任务结束 ==========");
-    }
+    // 用于记录每个任务的API Key索引
+    private final Map<String, AtomicInteger> taskKeyIndexes = new java.util.concurrent.ConcurrentHashMap<>();
 
     /**
-     * 豆包保活定时任务
+     * 执行一个保活任务，由调度引擎按任务的cron表达式触发
+     *
+     * @param task 保活任务（platformCode为目标平台）
+     * @throws IllegalStateException 有Key保活失败时抛出，运行队列据此把本次运行记为失败
      */
-    @Scheduled(cron = "0 */10 * * * *")
-    public void doubaoKeepAliveTask() {
-        String taskCode = "doubao_keepalive";
-        ScheduledTask task = taskService.getTaskByCode(taskCode);
-
-        // 检查任务是否存在且启用
-        if (task == null || task.getEnabled() == 0) {
-            log.debug("豆包保活任务未启用，跳过执行");
-            return;
-        }
-
-        log.info("========== 豆包保活任务开始 ==========");
+    @TaskExecutorMethod
+    public void runKeepAliveTask(ScheduledTask task) {
+        String platformCode = task.getPlatformCode();
+        String taskCode = task.getTaskCode();
+        log.info("========== {} 保活任务开始 ==========", platformCode);
 
+        List<SystemLog> logs;
         try {
-            executeKeepAliveForPlatform("doubao", taskCode);
+            logs = executeKeepAliveForPlatform(platformCode, taskCode);
         } catch (Exception e) {
-            log.error("豆包保活任务异常：{}", e.getMessage(), e);
-            taskService.recordFailure(taskCode);
+            log.error("{} 保活任务异常：{}", platformCode, e.getMessage(), e);
+            recordTaskStatus(taskCode, failureStatus());
+            throw e;
+        } finally {
+            log.info("========== {} 保活任务结束 ==========", platformCode);
         }
 
-        log.info("========== 豆包保活任务结束 ==========");
+        long failed = logs.stream().filter(systemLog -> !"success".equals(systemLog.getStatus())).count();
+        if (failed > 0) {
+            throw new IllegalStateException(String.format("%s 平台保活失败：%d/%d 个Key失败",
+                    platformCode, failed, logs.size()));
+        }
     }
 
     /**
      * 为指定平台执行保活
+     * 保活模式由系统配置 ai.{platform}.keepalive_mode 决定：
+     * round_robin（默认）每次轮换使用一个Key；all_keys 每次对所有Key保活，平台内并发数受限，日志一次批量写入
      *
      * @param platformCode 平台代码（zhipu, doubao）
      * @param taskCode 任务代码（zhipu_keepalive, doubao_keepalive）
+     * @return 本次保活产生的日志
      */
-    private void executeKeepAliveForPlatform(String platformCode, String taskCode) {
+    private List<SystemLog> executeKeepAliveForPlatform(String platformCode, String taskCode) {
         // 获取API Keys
         String keysConfigKey = "ai." + platformCode + ".keys";
         String keysJson = configService.getConfigValue(keysConfigKey, "[]");
@@ -114,31 +136,168 @@ public class KeepAliveSchedulerService {
         List<String> apiKeys = parseApiKeys(keysJson);
         if (apiKeys == null || apiKeys.isEmpty()) {
             log.warn("{} 平台没有配置API Keys，跳过保活", platformCode);
-            return;
+            return List.of();
         }
 
-        // 轮换选择API Key
-        String apiKey = getNextApiKey(taskCode, apiKeys);
-        log.info("{} 平台使用API Key：{}", platformCode,
-            apiKey.substring(0, Math.min(8, apiKey.length())) + "****");
-
         // 获取对应的服务
         AIPlatformService service = platformFactory.getService(platformCode);
 
-        // 执行保活调用
-        SystemLog systemLog = service.callKeepAlive(apiKey, null);
+        String mode = configService.getConfigValue("ai." + platformCode + ".keepalive_mode", MODE_ROUND_ROBIN);
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        Integer keyIndex = null;
+        List<SystemLog> logs;
+        try {
+            if (MODE_ALL_KEYS.equalsIgnoreCase(mode.trim())) {
+                logs = keepAliveAllKeys(service, platformCode, apiKeys);
+                if (logs.isEmpty()) {
+                    // 与轮换模式一致：没有实际调用时不记录执行结果
+                    log.warn("{} 平台所有API Key均处于熔断期或近期有真实调用，跳过本次保活", platformCode);
+                    return List.of();
+                }
+                logService.saveLogs(logs);
+            } else {
+                // 轮换选择API Key（跳过熔断中的Key）
+                String apiKey = getNextHealthyApiKey(platformCode, taskCode, apiKeys);
+                if (apiKey == null) {
+                    log.warn("{} 平台所有API Key均处于熔断期或近期有真实调用，跳过本次保活", platformCode);
+                    return List.of();
+                }
+                keyIndex = apiKeys.indexOf(apiKey);
+                log.info("{} 平台使用API Key：{}", platformCode,
+                    apiKey.substring(0, Math.min(8, apiKey.length())) + "****");
+
+                // 执行保活调用并保存日志
+                SystemLog systemLog = service.callKeepAlive(apiKey, null);
+                recordKeyHealth(platformCode, apiKey, systemLog);
+                logService.saveLog(systemLog);
+                logs = List.of(systemLog);
+            }
+        } catch (RuntimeException e) {
+            executionRecorder.record(taskCode, platformCode, startedAt, elapsedMillis(startNanos), failureStatus(),
+                    keyIndex, null);
+            throw e;
+        }
 
-        // 保存日志
-        logService.saveLog(systemLog);
+        // 更新任务执行统计：所有Key都成功才算成功，因超时被中断的记为timeout
+        boolean allSuccess = logs.stream().allMatch(systemLog -> "success".equals(systemLog.getStatus()));
+        String status = allSuccess ? "success" : failureStatus();
+        recordTaskStatus(taskCode, status);
+        executionRecorder.record(taskCode, platformCode, startedAt, elapsedMillis(startNanos), status, keyIndex,
+                sumTokens(logs));
 
-        // 更新任务执行统计
+        log.info("{} 平台保活完成，模式：{}，Key数量：{}，成功：{}", platformCode, mode, logs.size(),
+                logs.stream().filter(systemLog -> "success".equals(systemLog.getStatus())).count());
+        return logs;
+    }
+
+    /**
+     * 对平台的所有Key并行保活，并发数受 ai.{platform}.keepalive_concurrency 限制
+     *
+     * @return 每个Key一条日志（超时的Key生成失败日志）
+     */
+    private List<SystemLog> keepAliveAllKeys(AIPlatformService service, String platformCode, List<String> apiKeys) {
+        int concurrency = configService.getConfigValueAsInt(
+                "ai." + platformCode + ".keepalive_concurrency", defaultKeyConcurrency);
+
+        long idleWindowMs = activityTracker.getIdleWindowMs(platformCode);
+
+        Map<String, Callable<SystemLog>> calls = new LinkedHashMap<>();
+        Map<String, String> keysByName = new LinkedHashMap<>();
+        for (int i = 0; i < apiKeys.size(); i++) {
+            String apiKey = apiKeys.get(i);
+            if (activityTracker.isRecentlyUsed(apiKey, idleWindowMs)) {
+                log.info("{} 平台Key #{} 近期有真实调用，本次跳过", platformCode, i);
+                activityTracker.recordSkip(platformCode);
+                continue;
+            }
+            if (!keyHealthRegistry.allowRequest(platformCode, apiKey)) {
+                log.info("{} 平台Key #{} 处于熔断期，本次跳过", platformCode, i);
+                continue;
+            }
+            String name = platformCode + "#" + i;
+            keysByName.put(name, apiKey);
+            calls.put(name, () -> service.callKeepAlive(apiKey, null));
+        }
+        log.info("{} 平台对 {}/{} 个Key保活，并发数：{}", platformCode, calls.size(), apiKeys.size(), concurrency);
+
+        List<SystemLog> logs = new ArrayList<>(apiKeys.size());
+        // 单个Key的超时不超过任务剩余时间
+        long keyTimeoutMs = TaskRunContext.remainingMillis(fanOutTimeoutMs);
+        for (FanOutResult<SystemLog> result : fanOutExecutor.invokeAll(calls, keyTimeoutMs, concurrency)) {
+            String apiKey = keysByName.get(result.name());
+            SystemLog systemLog = result.isSuccess() && result.value() != null
+                    ? result.value()
+                    : buildFailedLog(service, apiKey, result);
+            recordKeyHealth(platformCode, apiKey, systemLog);
+            logs.add(systemLog);
+        }
+        return logs;
+    }
+
+    /**
+     * 为超时、被拒绝或抛出异常的调用生成失败日志
+     */
+    private SystemLog buildFailedLog(AIPlatformService service, String apiKey, FanOutResult<SystemLog> result) {
+        SystemLog systemLog = new SystemLog();
+        systemLog.setLogType("keepalive");
+        systemLog.setLogCategory("ai");
+        systemLog.setPlatformCode(service.getPlatformCode());
+        systemLog.setTaskCode(service.getTaskCode());
+        systemLog.setLogTitle(service.getPlatformName() + "保活失败（" + result.status() + "）");
+        systemLog.setStatus("failed");
+        systemLog.setErrorMessage(result.error());
+        // 与平台服务生成的日志使用同一掩码，Token用量按Key汇总时不会拆成两行
+        systemLog.setApiKeyMasked(service.maskApiKey(apiKey));
+        systemLog.setDuration((int) result.durationMs());
+        return systemLog;
+    }
+
+    /**
+     * 把调用结果记入Key健康状态
+     * 任务因超时被中断时，失败是本地截止时间造成的，不计入熔断器，避免把健康的Key熔断
+     */
+    private void recordKeyHealth(String platformCode, String apiKey, SystemLog systemLog) {
         if ("success".equals(systemLog.getStatus())) {
-            taskService.recordSuccess(taskCode);
+            keyHealthRegistry.recordSuccess(platformCode, apiKey);
+        } else if (TaskRunContext.isCurrentTimedOut()) {
+            log.debug("{} 平台Key调用因任务超时中断，不计入熔断器", platformCode);
         } else {
-            taskService.recordFailure(taskCode);
+            int statusCode = systemLog.getResponseStatus() != null ? systemLog.getResponseStatus() : 0;
+            keyHealthRegistry.recordFailure(platformCode, apiKey, statusCode, systemLog.getErrorMessage());
+        }
+    }
+
+    /**
+     * 失败时的执行状态：任务因超时被中断时为timeout，否则为failed
+     */
+    private static String failureStatus() {
+        return TaskRunContext.isCurrentTimedOut() ? "timeout" : "failed";
+    }
+
+    private void recordTaskStatus(String taskCode, String status) {
+        switch (status) {
+            case "success" -> taskService.recordSuccess(taskCode);
+            case "timeout" -> taskService.recordTimeout(taskCode);
+            default -> taskService.recordFailure(taskCode);
         }
+    }
 
-        log.info("{} 平台保活完成，状态：{}", platformCode, systemLog.getStatus());
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * 本次执行消耗的Token总数，所有日志都没有Token信息时返回null
+     */
+    private static Integer sumTokens(List<SystemLog> logs) {
+        Integer total = null;
+        for (SystemLog systemLog : logs) {
+            if (systemLog.getTotalTokens() != null) {
+                total = (total != null ? total : 0) + systemLog.getTotalTokens();
+            }
+        }
+        return total;
     }
 
     /**
@@ -167,6 +326,26 @@ public class KeepAliveSchedulerService {
         return apiKeys.get(currentIndex);
     }
 
+    /**
+     * 轮换获取下一个需要保活的API Key：跳过近期有真实调用的Key和熔断中的Key
+     *
+     * @return API Key，没有需要保活的Key时返回null
+     */
+    private String getNextHealthyApiKey(String platformCode, String taskCode, List<String> apiKeys) {
+        long idleWindowMs = activityTracker.getIdleWindowMs(platformCode);
+        for (int i = 0; i < apiKeys.size(); i++) {
+            String apiKey = getNextApiKey(taskCode, apiKeys);
+            if (activityTracker.isRecentlyUsed(apiKey, idleWindowMs)) {
+                activityTracker.recordSkip(platformCode);
+                continue;
+            }
+            if (keyHealthRegistry.allowRequest(platformCode, apiKey)) {
+                return apiKey;
+            }
+        }
+        return null;
+    }
+
     /**
      * 手动触发指定平台的保活（用于测试）
      */
@@ -189,43 +368,59 @@ public class KeepAliveSchedulerService {
         // 获取对应的服务
         AIPlatformService service = platformFactory.getService(platformCode);
 
-        // 执行保活调用
+        // 执行保活调用（手动测试不受熔断限制，但结果计入Key健康状态）
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
         SystemLog systemLog = service.callKeepAlive(apiKey, null);
+        recordKeyHealth(platformCode, apiKey, systemLog);
 
         // 保存日志
         logService.saveLog(systemLog);
 
         // 更新任务执行统计
-        if ("success".equals(systemLog.getStatus())) {
-            taskService.recordSuccess(taskCode);
-        } else {
-            taskService.recordFailure(taskCode);
-        }
+        String status = "success".equals(systemLog.getStatus()) ? "success" : failureStatus();
+        recordTaskStatus(taskCode, status);
+        executionRecorder.record(taskCode, platformCode, startedAt, elapsedMillis(startNanos), status,
+                apiKeys.indexOf(apiKey), systemLog.getTotalTokens());
 
         return systemLog;
     }
 
     /**
      * 手动触发所有已启用平台的保活
+     * 各平台在并行执行器上同时执行，总耗时取决于最慢的平台；超过超时时间的平台记为timeout
+     *
+     * @return 各平台的执行结果
      */
-    public void manualTriggerAll() {
+    public List<FanOutResult<List<SystemLog>>> manualTriggerAll() {
         log.info("手动触发所有平台保活任务");
 
         // 获取所有启用的保活任务
         List<ScheduledTask> enabledTasks = taskService.getTasksByType("keepalive");
 
+        Map<String, Callable<List<SystemLog>>> calls = new LinkedHashMap<>();
         for (ScheduledTask task : enabledTasks) {
             if (task.getEnabled() == 1) {
                 String platformCode = task.getPlatformCode();
                 String taskCode = task.getTaskCode();
-
-                try {
-                    executeKeepAliveForPlatform(platformCode, taskCode);
-                } catch (Exception e) {
-                    log.error("{} 平台保活失败：{}", platformCode, e.getMessage());
-                    taskService.recordFailure(taskCode);
-                }
+                calls.put(platformCode, () -> {
+                    try {
+                        return executeKeepAliveForPlatform(platformCode, taskCode);
+                    } catch (Exception e) {
+                        log.error("{} 平台保活失败：{}", platformCode, e.getMessage());
+                        taskService.recordFailure(taskCode);
+                        throw e;
+                    }
+                });
             }
         }
+
+        // 平台内的Key也在同一线程池上并行，平台级并发只占用一半线程，避免嵌套调用占满线程池
+        int platformConcurrency = Math.max(1, fanOutExecutor.getThreads() / 2);
+        List<FanOutResult<List<SystemLog>>> results = fanOutExecutor.invokeAll(calls, platformTimeoutMs, platformConcurrency);
+        log.info("所有平台保活完成：{}", results.stream()
+                .map(result -> result.name() + "=" + result.status() + "(" + result.durationMs() + "ms)")
+                .toList());
+        return results;
     }
 }
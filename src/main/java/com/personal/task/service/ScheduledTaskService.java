@@ -1,9 +1,11 @@
 package com.personal.task.service;
 
 import com.personal.task.entity.ScheduledTask;
+import com.personal.task.event.ScheduledTaskChangedEvent;
 import com.personal.task.mapper.ScheduledTaskMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,18 +22,24 @@ public class ScheduledTaskService {
     @Autowired
     private ScheduledTaskMapper taskMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskExecutionStatsAccumulator statsAccumulator;
+
     /**
      * 获取所有任务
      */
     public List<ScheduledTask> getAllTasks() {
-        return taskMapper.findAll();
+        return statsAccumulator.readMerged(taskMapper::findAll);
     }
 
     /**
      * 根据任务代码获取任务
      */
     public ScheduledTask getTaskByCode(String taskCode) {
-        return taskMapper.findByTaskCode(taskCode);
+        return statsAccumulator.readMergedOne(() -> taskMapper.findByTaskCode(taskCode));
     }
 
     /**
@@ -62,22 +70,31 @@ public class ScheduledTaskService {
         int status = enabled ? 1 : 0;
         taskMapper.updateEnabled(taskCode, status);
         log.info("任务 {} 已{}", taskCode, enabled ? "启用" : "禁用");
+        eventPublisher.publishEvent(new ScheduledTaskChangedEvent(taskCode));
     }
 
     /**
-     * 更新任务执行统计（成功）
+     * 更新任务执行统计（成功），先累加到内存，定期合并写入
      */
     public void recordSuccess(String taskCode) {
-        taskMapper.updateExecutionStats(taskCode, 1, 0, "success");
-        log.info("任务 {} 执行成功，统计已更新", taskCode);
+        statsAccumulator.record(taskCode, "success");
+        log.info("任务 {} 执行成功，统计已记录", taskCode);
     }
 
     /**
-     * 更新任务执行统计（失败）
+     * 更新任务执行统计（失败），先累加到内存，定期合并写入
      */
     public void recordFailure(String taskCode) {
-        taskMapper.updateExecutionStats(taskCode, 0, 1, "failed");
-        log.warn("任务 {} 执行失败，统计已更新", taskCode);
+        statsAccumulator.record(taskCode, "failed");
+        log.warn("任务 {} 执行失败，统计已记录", taskCode);
+    }
+
+    /**
+     * 更新任务执行统计（超时），计入失败次数，最近执行状态记为timeout
+     */
+    public void recordTimeout(String taskCode) {
+        statsAccumulator.record(taskCode, "timeout");
+        log.warn("任务 {} 执行超时，统计已记录", taskCode);
     }
 
     /**
@@ -87,6 +104,7 @@ public class ScheduledTaskService {
         int updated = taskMapper.updateTask(task);
         if (updated > 0) {
             log.info("任务 {} 配置已更新", task.getTaskCode());
+            eventPublisher.publishEvent(new ScheduledTaskChangedEvent(task.getTaskCode()));
         } else {
             throw new RuntimeException("任务更新失败：任务不存在");
         }
@@ -110,6 +128,7 @@ public class ScheduledTaskService {
         int inserted = taskMapper.insert(task);
         if (inserted > 0) {
             log.info("新任务 {} 创建成功", task.getTaskCode());
+            eventPublisher.publishEvent(new ScheduledTaskChangedEvent(task.getTaskCode()));
         } else {
             throw new RuntimeException("任务创建失败");
         }
@@ -121,6 +140,7 @@ public class ScheduledTaskService {
     public void deleteTask(String taskCode) {
         taskMapper.softDelete(taskCode);
         log.info("任务 {} 已禁用（软删除）", taskCode);
+        eventPublisher.publishEvent(new ScheduledTaskChangedEvent(taskCode));
     }
 
     /**
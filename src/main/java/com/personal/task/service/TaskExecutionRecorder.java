@@ -0,0 +1,160 @@
+package com.personal.task.service;
+
+import com.personal.task.entity.TaskExecution;
+import com.personal.task.mapper.TaskExecutionMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 任务执行记录异步写入器
+ * 执行记录放入有界队列，由后台线程批量写入 task_execution，任务线程不等待数据库；
+ * 队列满时丢弃并计数。过期记录按保留天数定期分批删除。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Service
+public class TaskExecutionRecorder {
+
+    private static final int PURGE_BATCH_SIZE = 5000;
+
+    @Value("${app.task.execution.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.task.execution.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.task.execution.retention-days:30}")
+    private int retentionDays;
+
+    @Autowired
+    private TaskExecutionMapper executionMapper;
+
+    private final BlockingQueue<TaskExecution> queue;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public TaskExecutionRecorder(@Value("${app.task.execution.queue-capacity:5000}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::runLoop, "task-execution-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * 记录一次执行，不阻塞
+     *
+     * @param startedAt 开始时间
+     * @param durationMs 耗时（毫秒）
+     * @param status 执行状态：success / failed / timeout
+     * @param keyIndex 使用的Key序号，可为空
+     * @param totalTokens 消耗的Token数，可为空
+     */
+    public void record(String taskCode, String platformCode, LocalDateTime startedAt, long durationMs,
+                       String status, Integer keyIndex, Integer totalTokens) {
+        TaskExecution execution = new TaskExecution()
+                .setTaskCode(taskCode)
+                .setPlatformCode(platformCode)
+                .setStartedAt(startedAt)
+                .setDurationMs((int) Math.min(durationMs, Integer.MAX_VALUE))
+                .setStatus(status)
+                .setKeyIndex(keyIndex)
+                .setTotalTokens(totalTokens);
+        if (!queue.offer(execution)) {
+            long count = dropped.incrementAndGet();
+            if ((count & (count - 1)) == 0) {
+                log.warn("任务执行记录队列已满，已丢弃 {} 条", count);
+            }
+        }
+    }
+
+    private void runLoop() {
+        List<TaskExecution> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                TaskExecution first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, Math.max(batchSize, 1) - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<TaskExecution> batch) {
+        try {
+            executionMapper.insert(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            log.error("批量写入任务执行记录失败，数量：{}，原因：{}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 每天删除超过保留期的执行记录，分批删除避免长事务
+     */
+    @Scheduled(cron = "${app.task.execution.purge-cron:0 30 3 * * ?}")
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = executionMapper.deleteBefore(before, PURGE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        if (total > 0) {
+            log.info("已删除 {} 条 {} 之前的任务执行记录", total, before);
+        }
+    }
+
+    /**
+     * 写入统计
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "queued", queue.size(),
+                "written", written.get(),
+                "dropped", dropped.get(),
+                "failed", failed.get()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        if (!queue.isEmpty()) {
+            log.warn("应用关闭时仍有 {} 条任务执行记录未写入", queue.size());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.personal.task.service;
+
+import com.personal.task.entity.ScheduledTask;
+import com.personal.task.mapper.ScheduledTaskMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 任务执行统计累加器
+ * 执行结果先累加到内存（LongAdder），按固定间隔每个任务合并为一条UPDATE写入，关闭时再写一次，
+ * 避免并行执行时反复更新同一行造成行锁竞争。
+ * 写库期间持有写锁，读取统计时持有读锁，因此“数据库值 + 未写入的增量”始终是准确的。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class TaskExecutionStatsAccumulator {
+
+    @Autowired
+    private ScheduledTaskMapper taskMapper;
+
+    /**
+     * 任务代码 -> 未写入的增量
+     */
+    private final Map<String, PendingStats> pending = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    /**
+     * 记录一次执行结果
+     *
+     * @param status 执行状态：success 计入成功次数，其他（failed / timeout）计入失败次数
+     */
+    public void record(String taskCode, String status) {
+        PendingStats stats = pending.computeIfAbsent(taskCode, k -> new PendingStats());
+        ("success".equals(status) ? stats.success : stats.failed).increment();
+        stats.lastExecution = new LastExecution(LocalDateTime.now(), status);
+    }
+
+    /**
+     * 将未写入的增量写入数据库，每个任务一条UPDATE
+     * 写入失败的增量保留到下次
+     */
+    @Scheduled(fixedDelayString = "${app.task.stats.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.writeLock().lock();
+        try {
+            pending.forEach(this::flushTask);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void flushTask(String taskCode, PendingStats stats) {
+        // 只扣减本次读到的数量，写库期间新增的增量留在累加器中，不会丢失
+        long success = stats.success.sum();
+        long failed = stats.failed.sum();
+        LastExecution last = stats.lastExecution;
+        if ((success == 0 && failed == 0) || last == null) {
+            return;
+        }
+        try {
+            taskMapper.addExecutionStats(taskCode, success, failed, last.time(), last.status());
+            stats.success.add(-success);
+            stats.failed.add(-failed);
+        } catch (Exception e) {
+            log.warn("任务 {} 执行统计写入失败，下次重试：{}", taskCode, e.getMessage());
+        }
+    }
+
+    /**
+     * 在读锁内执行查询并合并未写入的增量，保证与写库互斥
+     */
+    public <T extends Collection<ScheduledTask>> T readMerged(Supplier<T> query) {
+        flushLock.readLock().lock();
+        try {
+            T tasks = query.get();
+            if (tasks != null) {
+                tasks.forEach(this::merge);
+            }
+            return tasks;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 读取单个任务并合并未写入的增量
+     */
+    public ScheduledTask readMergedOne(Supplier<ScheduledTask> query) {
+        flushLock.readLock().lock();
+        try {
+            ScheduledTask task = query.get();
+            if (task != null) {
+                merge(task);
+            }
+            return task;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private void merge(ScheduledTask task) {
+        PendingStats stats = pending.get(task.getTaskCode());
+        if (stats == null) {
+            return;
+        }
+        long success = stats.success.sum();
+        long failed = stats.failed.sum();
+        LastExecution last = stats.lastExecution;
+        if ((success == 0 && failed == 0) || last == null) {
+            return;
+        }
+        task.setTotalExecutions((int) (nullToZero(task.getTotalExecutions()) + success + failed));
+        task.setSuccessExecutions((int) (nullToZero(task.getSuccessExecutions()) + success));
+        task.setFailedExecutions((int) (nullToZero(task.getFailedExecutions()) + failed));
+        if (task.getLastExecutionTime() == null || last.time().isAfter(task.getLastExecutionTime())) {
+            task.setLastExecutionTime(last.time());
+            task.setLastExecutionStatus(last.status());
+        }
+    }
+
+    private static long nullToZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 单个任务未写入的增量
+     */
+    private static final class PendingStats {
+
+        private final LongAdder success = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private volatile LastExecution lastExecution;
+    }
+
+    private record LastExecution(LocalDateTime time, String status) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.personal.task.service;
+
+import com.personal.task.entity.TaskExecution;
+import com.personal.task.mapper.TaskExecutionMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 任务执行统计服务
+ * 流式读取窗口内的执行记录，逐行写入每个任务的HdrHistogram，不对原始记录排序，
+ * 内存占用与记录条数无关。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Service
+public class TaskExecutionStatsService {
+
+    /**
+     * 最大可记录耗时：1小时（毫秒），超出的值按最大值记录
+     */
+    private static final long HIGHEST_TRACKABLE_MILLIS = 3_600_000L;
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    @Autowired
+    private TaskExecutionMapper executionMapper;
+
+    /**
+     * 统计窗口内每个任务的耗时分位数和失败率
+     *
+     * @param taskCode 任务代码，为空时统计所有任务
+     * @param windowMillis 统计窗口（毫秒）
+     * @return 按任务代码排序的统计结果
+     */
+    public List<Map<String, Object>> getStats(String taskCode, long windowMillis) {
+        Map<String, TaskAccumulator> accumulators = new HashMap<>();
+        LocalDateTime since = LocalDateTime.now().minusNanos(windowMillis * 1_000_000L);
+        executionMapper.streamSince(taskCode, since, context -> {
+            TaskExecution execution = context.getResultObject();
+            TaskAccumulator accumulator = accumulators.computeIfAbsent(execution.getTaskCode(), k -> new TaskAccumulator());
+            long duration = execution.getDurationMs() != null ? execution.getDurationMs() : 0;
+            accumulator.histogram.recordValue(Math.max(0, Math.min(duration, HIGHEST_TRACKABLE_MILLIS)));
+            if (!"success".equals(execution.getStatus())) {
+                accumulator.failed++;
+            }
+        });
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        accumulators.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> result.add(toMap(entry.getKey(), entry.getValue())));
+        return result;
+    }
+
+    private static Map<String, Object> toMap(String taskCode, TaskAccumulator accumulator) {
+        Histogram histogram = accumulator.histogram;
+        long total = histogram.getTotalCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("taskCode", taskCode);
+        stats.put("executions", total);
+        stats.put("failed", accumulator.failed);
+        stats.put("failureRate", total > 0 ? Math.round(accumulator.failed * 10000.0 / total) / 100.0 : 0.0);
+        stats.put("p50", histogram.getValueAtPercentile(50));
+        stats.put("p95", histogram.getValueAtPercentile(95));
+        stats.put("p99", histogram.getValueAtPercentile(99));
+        stats.put("max", histogram.getMaxValue());
+        stats.put("mean", Math.round(histogram.getMean()));
+        return stats;
+    }
+
+    private static final class TaskAccumulator {
+
+        private final Histogram histogram = new Histogram(HIGHEST_TRACKABLE_MILLIS, SIGNIFICANT_DIGITS);
+        private long failed;
+    }
+}
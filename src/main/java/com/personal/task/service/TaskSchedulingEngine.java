@@ -0,0 +1,422 @@
+package com.personal.task.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.task.entity.ScheduledTask;
+import com.personal.task.event.ScheduledTaskChangedEvent;
+import com.personal.task.service.cluster.TaskLockService;
+import com.personal.task.service.cluster.TaskShardService;
+import com.personal.task.service.invoker.TaskHandler;
+import com.personal.task.service.invoker.TaskInvoker;
+import com.personal.task.service.invoker.TaskRunContext;
+import com.personal.task.service.queue.TaskRun;
+import com.personal.task.service.queue.TaskRunQueue;
+import com.personal.task.service.trigger.JitteredTrigger;
+import com.personal.task.service.trigger.ScheduleSpec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定时任务调度引擎
+ * 按 scheduled_task 表中每个启用任务的cron表达式注册一个触发器，任务配置变更时重新注册。
+ * 任务的执行方法由 {@link TaskInvoker} 按 executor_class / executor_method 在注册时解析并绑定。
+ * 触发时从内存注册表取任务配置，不再每次查询数据库；另按固定间隔与数据库全量对账一次，兼容直接改表的情况。
+ * 集群模式为 lock 时，每次触发先获取数据库任务锁，多节点部署下同一次触发只有一个节点执行；
+ * 为 shard 时各节点按一致性哈希只执行归属自己的任务，并仍获取任务锁以覆盖节点变化时的重新平衡窗口。
+ * 任务放入 {@link TaskRunQueue} 由工作线程执行，超过超时时间（executor_params 中的 timeoutMs）后中断执行线程并记为超时。
+ * 触发时间可按任务代码错峰并加随机抖动（见 {@link ScheduleSpec}），避免所有任务在整点同一秒触发。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class TaskSchedulingEngine {
+
+    private static final String CLUSTER_MODE_LOCK = "lock";
+
+    @Value("${app.task.scheduler.pool-size:4}")
+    private int poolSize;
+
+    /**
+     * 集群模式：none 单节点直接执行；lock 每次触发先获取任务锁；shard 按一致性哈希分片执行
+     */
+    @Value("${app.task.cluster.mode:none}")
+    private String clusterMode;
+
+    /**
+     * 默认调度方式：exact / stagger / jitter，可在任务的 executor_params 中覆盖
+     */
+    @Value("${app.task.scheduler.mode:exact}")
+    private String defaultScheduleMode;
+
+    @Value("${app.task.scheduler.stagger-window-ms:30000}")
+    private long staggerWindowMs;
+
+    @Value("${app.task.scheduler.jitter-ms:5000}")
+    private long jitterMs;
+
+    /**
+     * 任务默认超时时间，可在任务的 executor_params 中用 timeoutMs 覆盖，0表示不限时
+     */
+    @Value("${app.task.scheduler.default-timeout-ms:120000}")
+    private long defaultTimeoutMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ScheduledTaskService taskService;
+
+    @Autowired
+    private TaskInvoker taskInvoker;
+
+    @Autowired
+    private TaskRunQueue runQueue;
+
+    @Autowired
+    private TaskLockService taskLockService;
+
+    @Autowired
+    private TaskShardService taskShardService;
+
+    private ThreadPoolTaskScheduler scheduler;
+
+    /**
+     * 已注册的任务：任务代码 -> 任务配置快照和触发器
+     */
+    private final Map<String, RegisteredTask> registry = new ConcurrentHashMap<>();
+
+    private volatile boolean started;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("task-engine-");
+        scheduler.setErrorHandler(e -> log.error("定时任务执行异常：{}", e.getMessage(), e));
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        scheduler.initialize();
+        started = true;
+
+        refreshAll();
+        log.info("定时任务调度引擎已启动，节点：{}，集群模式：{}，线程数：{}，已注册任务：{}",
+                taskLockService.getNodeId(), clusterMode, poolSize, registry.keySet());
+    }
+
+    /**
+     * 任务配置变更后重新加载该任务
+     */
+    @EventListener
+    public void onTaskChanged(ScheduledTaskChangedEvent event) {
+        if (!started) {
+            return;
+        }
+        refresh(event.taskCode());
+    }
+
+    /**
+     * 定期与数据库全量对账
+     */
+    @Scheduled(fixedDelayString = "${app.task.scheduler.resync-ms:300000}", initialDelayString = "${app.task.scheduler.resync-ms:300000}")
+    public void resync() {
+        if (started) {
+            refreshAll();
+        }
+    }
+
+    /**
+     * 按数据库中的启用任务全量刷新注册表
+     */
+    public synchronized void refreshAll() {
+        List<ScheduledTask> enabledTasks = taskService.getEnabledTasks();
+        Set<String> enabledCodes = new HashSet<>();
+        for (ScheduledTask task : enabledTasks) {
+            enabledCodes.add(task.getTaskCode());
+            register(task);
+        }
+        for (String taskCode : new ArrayList<>(registry.keySet())) {
+            if (!enabledCodes.contains(taskCode)) {
+                unregister(taskCode);
+            }
+        }
+    }
+
+    /**
+     * 重新加载单个任务：启用则（重新）注册，禁用或已删除则取消
+     */
+    public synchronized void refresh(String taskCode) {
+        ScheduledTask task = taskService.getTaskByCode(taskCode);
+        if (task == null || task.getEnabled() == null || task.getEnabled() != 1) {
+            unregister(taskCode);
+        } else {
+            register(task);
+        }
+    }
+
+    /**
+     * 注册任务；cron表达式和调度方式都未变化时只更新配置快照，不重建触发器
+     */
+    private void register(ScheduledTask task) {
+        String taskCode = task.getTaskCode();
+        TaskHandler handler;
+        try {
+            handler = taskInvoker.resolve(task);
+        } catch (IllegalArgumentException e) {
+            log.error("任务 {} 的执行器无效：{}，不注册", taskCode, e.getMessage());
+            unregister(taskCode);
+            return;
+        }
+
+        ScheduleSpec spec = ScheduleSpec.of(task, defaultSpec(task), objectMapper);
+        RegisteredTask existing = registry.get(taskCode);
+        long timeoutMs = parseTimeout(task);
+        if (existing != null && Objects.equals(existing.spec, spec)) {
+            existing.task = task;
+            existing.handler = handler;
+            existing.timeoutMs = timeoutMs;
+            return;
+        }
+
+        Trigger trigger;
+        try {
+            trigger = spec.createTrigger(taskCode);
+        } catch (IllegalArgumentException e) {
+            log.error("任务 {} 的cron表达式无效：{}，不注册", taskCode, task.getCronExpression());
+            unregister(taskCode);
+            return;
+        }
+
+        if (existing != null) {
+            existing.future.cancel(false);
+        }
+        RegisteredTask registered = new RegisteredTask(task, spec, trigger, handler);
+        registered.timeoutMs = timeoutMs;
+        registered.future = scheduler.schedule(() -> dispatch(taskCode), trigger);
+        if (registered.future == null) {
+            registry.remove(taskCode);
+            log.warn("任务 {} 的cron表达式 {} 不会再触发，不注册", taskCode, task.getCronExpression());
+            return;
+        }
+        registry.put(taskCode, registered);
+        log.info("任务 {} 已注册，cron：{}，调度方式：{}", taskCode, task.getCronExpression(), spec.mode());
+    }
+
+    private void unregister(String taskCode) {
+        RegisteredTask removed = registry.remove(taskCode);
+        if (removed != null) {
+            removed.future.cancel(false);
+            log.info("任务 {} 已取消调度", taskCode);
+        }
+    }
+
+    /**
+     * 触发任务：按任务类型分发到具体执行器
+     */
+    private void dispatch(String taskCode) {
+        RegisteredTask registered = registry.get(taskCode);
+        if (registered == null) {
+            return;
+        }
+        if (taskShardService.isEnabled() && !taskShardService.owns(taskCode)) {
+            log.debug("任务 {} 归属节点 {}，本节点跳过", taskCode, taskShardService.ownerOf(taskCode));
+            return;
+        }
+        if (CLUSTER_MODE_LOCK.equals(clusterMode) || taskShardService.isEnabled()) {
+            if (!taskLockService.tryLock(taskCode)) {
+                log.debug("任务 {} 正在由其他节点或本节点上一次触发执行，本次跳过", taskCode);
+                return;
+            }
+            submit(registered, true);
+        } else {
+            submit(registered, false);
+        }
+    }
+
+    /**
+     * 放入任务运行队列（定时优先级）执行，超过任务的超时时间后中断执行线程并标记为超时
+     * 调度线程只负责触发，不等待任务完成，一个卡住的任务不会占用其他任务的调度；
+     * 同一任务上一次触发还在排队或执行时跳过本次
+     *
+     * @param locked 是否持有任务锁，运行结束（或排队中被取消）后释放；重复时锁归上一次运行，由它释放
+     */
+    private void submit(RegisteredTask registered, boolean locked) {
+        String taskCode = registered.task.getTaskCode();
+        long timeoutMs = registered.timeoutMs;
+        TaskRunContext context = new TaskRunContext(taskCode, timeoutMs);
+
+        TaskRunQueue.Submission submission = runQueue.submit("task:" + taskCode, TaskRun.Priority.SCHEDULED,
+                "定时任务 " + taskCode,
+                () -> {
+                    context.attach();
+                    try {
+                        execute(registered);
+                    } finally {
+                        TaskRunContext.detach();
+                    }
+                    return null;
+                },
+                run -> {
+                    if (locked) {
+                        taskLockService.unlock(taskCode);
+                    }
+                },
+                true);
+        if (TaskRunQueue.DUPLICATE.equals(submission.outcome())) {
+            log.warn("任务 {} 上一次运行（{}）尚未结束，本次跳过", taskCode, submission.run().getStatus());
+            return;
+        }
+        if (!submission.isAccepted()) {
+            log.warn("任务 {} 未能入队（{}），本次跳过", taskCode, submission.outcome());
+            if (locked) {
+                taskLockService.unlock(taskCode);
+            }
+            return;
+        }
+
+        TaskRun run = submission.run();
+        if (timeoutMs > 0) {
+            scheduler.schedule(() -> {
+                if (run.isFinished()) {
+                    return;
+                }
+                context.markTimedOut();
+                if (runQueue.cancel(run, TaskRun.TIMEOUT)) {
+                    log.warn("任务 {} 排队超过 {}ms，已取消", taskCode, timeoutMs);
+                } else {
+                    log.warn("任务 {} 执行超过 {}ms，已中断", taskCode, timeoutMs);
+                }
+            }, Instant.now().plusMillis(timeoutMs));
+        }
+    }
+
+    /**
+     * 调用任务绑定的执行方法，异常继续抛出，由运行队列记为失败
+     */
+    private void execute(RegisteredTask registered) throws Exception {
+        ScheduledTask task = registered.task;
+        try {
+            registered.handler.execute(task);
+        } catch (Exception | Error e) {
+            log.error("任务 {} 执行失败：{}", task.getTaskCode(), e.getMessage());
+            throw e;
+        } catch (Throwable e) {
+            log.error("任务 {} 执行失败：{}", task.getTaskCode(), e.getMessage());
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 当前已注册的任务
+     */
+    public Map<String, String> getRegisteredTasks() {
+        Map<String, String> result = new LinkedHashMap<>();
+        registry.forEach((taskCode, registered) -> result.put(taskCode, registered.spec.cronExpression()));
+        return result;
+    }
+
+    /**
+     * 已注册任务的调度计划：调度方式、相位偏移和之后的触发时间
+     *
+     * @param count 每个任务预览的触发次数
+     */
+    public List<Map<String, Object>> getSchedule(int count) {
+        Instant now = Instant.now();
+        List<Map<String, Object>> result = new ArrayList<>();
+        registry.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    RegisteredTask registered = entry.getValue();
+                    JitteredTrigger preview = registered.trigger instanceof JitteredTrigger jittered
+                            ? jittered
+                            : new JitteredTrigger(registered.spec.cronExpression(), entry.getKey(), 0, 0);
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("taskCode", entry.getKey());
+                    item.put("cronExpression", registered.spec.cronExpression());
+                    item.put("mode", registered.spec.mode());
+                    item.put("offsetMs", preview.getOffsetMs());
+                    item.put("jitterMs", preview.getJitterMs());
+                    long delay = registered.future.getDelay(TimeUnit.MILLISECONDS);
+                    item.put("nextFireTime", LocalDateTime.ofInstant(now.plusMillis(Math.max(0, delay)), ZoneId.systemDefault()));
+                    item.put("upcoming", preview.preview(now, count).stream()
+                            .map(instant -> LocalDateTime.ofInstant(instant, ZoneId.systemDefault()))
+                            .toList());
+                    result.add(item);
+                });
+        return result;
+    }
+
+    /**
+     * 任务超时时间：executor_params 中的 timeoutMs，未配置时使用默认值
+     */
+    private long parseTimeout(ScheduledTask task) {
+        String params = task.getExecutorParams();
+        if (params == null || params.isBlank()) {
+            return defaultTimeoutMs;
+        }
+        try {
+            return Math.max(0, objectMapper.readTree(params).path("timeoutMs").asLong(defaultTimeoutMs));
+        } catch (Exception e) {
+            return defaultTimeoutMs;
+        }
+    }
+
+    /**
+     * 全局默认调度方式
+     */
+    private ScheduleSpec defaultSpec(ScheduledTask task) {
+        return new ScheduleSpec(task.getCronExpression(), defaultScheduleMode, staggerWindowMs, jitterMs);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        started = false;
+        registry.values().forEach(registered -> registered.future.cancel(false));
+        registry.clear();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * 已注册任务
+     */
+    private static final class RegisteredTask {
+
+        private final ScheduleSpec spec;
+        private final Trigger trigger;
+        private volatile ScheduledTask task;
+        private volatile TaskHandler handler;
+        private volatile long timeoutMs;
+        private ScheduledFuture<?> future;
+
+        RegisteredTask(ScheduledTask task, ScheduleSpec spec, Trigger trigger, TaskHandler handler) {
+            this.spec = spec;
+            this.trigger = trigger;
+            this.task = task;
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.personal.task.service.cluster;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 集群维护调度器
+ * 任务锁续租和分片心跳使用独立的线程，不与 @Scheduled 的其他定时作业（统计刷新、清理、对账等）共用调度线程，
+ * 这些作业执行缓慢时也不会把续租拖过租约期限，导致其他节点在任务仍在执行时接管锁。
+ * 内部的调度器不注册为Spring Bean，避免替换Spring Boot默认的 @Scheduled 调度器。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class ClusterMaintenanceScheduler {
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    public ClusterMaintenanceScheduler() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("task-cluster-");
+        scheduler.setErrorHandler(e -> log.error("集群维护任务执行异常：{}", e.getMessage(), e));
+        scheduler.initialize();
+    }
+
+    /**
+     * 按固定间隔（上一次结束到下一次开始）执行
+     */
+    public void scheduleWithFixedDelay(Runnable task, long delayMs) {
+        scheduler.scheduleWithFixedDelay(task, Duration.ofMillis(delayMs));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+}
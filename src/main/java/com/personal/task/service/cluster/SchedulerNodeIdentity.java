@@ -0,0 +1,35 @@
+package com.personal.task.service.cluster;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.UUID;
+
+/**
+ * 当前调度节点的标识
+ * 格式为 主机名:进程号:随机后缀，同一主机上重启后也不会与旧进程冲突
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Getter
+@Component
+public class SchedulerNodeIdentity {
+
+    private final String host;
+    private final String nodeId;
+
+    public SchedulerNodeIdentity() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        this.host = host;
+        this.nodeId = host + ":" + ManagementFactory.getRuntimeMXBean().getPid() + ":"
+                + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
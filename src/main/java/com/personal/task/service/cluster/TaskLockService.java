@@ -0,0 +1,129 @@
+package com.personal.task.service.cluster;
+
+import com.personal.task.entity.TaskLock;
+import com.personal.task.mapper.TaskLockMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 任务锁服务（基于数据库租约）
+ * 每次任务触发前获取以任务代码命名的锁，获取失败说明其他节点（或本节点上一次触发）正在或刚刚执行，本次跳过。
+ * 锁不可重入，同一节点的两次触发也互斥。
+ * 执行期间按租约的1/3间隔续租（在独立的集群维护线程上，不受其他定时作业影响）；持有者宕机后租约到期，下一次触发即可由其他节点接管。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Service
+public class TaskLockService {
+
+    @Value("${app.task.lock.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${app.task.lock.at-least-for-ms:10000}")
+    private long atLeastForMs;
+
+    @Autowired
+    private TaskLockMapper lockMapper;
+
+    @Autowired
+    private SchedulerNodeIdentity nodeIdentity;
+
+    @Autowired
+    private ClusterMaintenanceScheduler maintenanceScheduler;
+
+    /**
+     * 本节点当前持有的锁
+     */
+    private final Set<String> heldLocks = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        maintenanceScheduler.scheduleWithFixedDelay(this::renewHeldLocks, Math.max(1, leaseMs / 3));
+    }
+
+    /**
+     * 尝试获取锁
+     *
+     * @param lockName 锁名称（任务代码）
+     * @return 是否获取成功；数据库异常时视为失败，宁可少执行一次也不重复执行
+     */
+    public boolean tryLock(String lockName) {
+        String owner = nodeIdentity.getNodeId();
+        try {
+            boolean acquired = lockMapper.acquireExpired(lockName, owner, leaseMs) > 0
+                    || lockMapper.insertIfAbsent(lockName, owner, leaseMs) > 0;
+            if (acquired) {
+                heldLocks.add(lockName);
+            }
+            return acquired;
+        } catch (Exception e) {
+            log.error("获取任务锁 {} 失败：{}", lockName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 释放锁，租约至少保留到加锁后 at-least-for-ms
+     */
+    public void unlock(String lockName) {
+        heldLocks.remove(lockName);
+        try {
+            lockMapper.release(lockName, nodeIdentity.getNodeId(), atLeastForMs);
+        } catch (Exception e) {
+            log.warn("释放任务锁 {} 失败，将在租约到期后自动释放：{}", lockName, e.getMessage());
+        }
+    }
+
+    /**
+     * 为执行中的任务续租
+     */
+    public void renewHeldLocks() {
+        String owner = nodeIdentity.getNodeId();
+        for (String lockName : heldLocks) {
+            try {
+                if (lockMapper.renew(lockName, owner, leaseMs) == 0 && heldLocks.contains(lockName)) {
+                    log.warn("任务锁 {} 续租失败，租约已过期或被其他节点接管", lockName);
+                }
+            } catch (Exception e) {
+                log.warn("任务锁 {} 续租异常：{}", lockName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 所有锁的当前状态
+     */
+    public List<TaskLock> getLocks() {
+        return lockMapper.findAll();
+    }
+
+    public String getNodeId() {
+        return nodeIdentity.getNodeId();
+    }
+
+    /**
+     * 关闭时立即释放仍持有的锁，让其他节点尽快接管
+     */
+    @PreDestroy
+    public void shutdown() {
+        String owner = nodeIdentity.getNodeId();
+        for (String lockName : heldLocks) {
+            try {
+                lockMapper.release(lockName, owner, 0);
+            } catch (Exception e) {
+                log.warn("释放任务锁 {} 失败：{}", lockName, e.getMessage());
+            }
+        }
+        heldLocks.clear();
+    }
+}
@@ -0,0 +1,124 @@
+package com.personal.task.service.cluster;
+
+import com.personal.task.entity.SchedulerNode;
+import com.personal.task.mapper.SchedulerNodeMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 任务分片服务
+ * 分片模式（app.task.cluster.mode=shard）下各节点定期写入心跳，心跳未过期的节点组成一致性哈希环，
+ * 每个节点只执行 task_code 哈希落在自己区间内的任务。节点加入或离开后，下一次心跳时各节点重建哈希环，
+ * 归属自动重新平衡；重新平衡的短暂窗口内由任务锁兜底，避免重复执行。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Service
+public class TaskShardService {
+
+    public static final String CLUSTER_MODE_SHARD = "shard";
+
+    @Value("${app.task.cluster.mode:none}")
+    private String clusterMode;
+
+    @Value("${app.task.shard.heartbeat-ttl-ms:15000}")
+    private long heartbeatTtlMs;
+
+    @Value("${app.task.shard.virtual-nodes:64}")
+    private int virtualNodes;
+
+    @Value("${app.task.shard.heartbeat-interval-ms:5000}")
+    private long heartbeatIntervalMs;
+
+    @Autowired
+    private SchedulerNodeMapper nodeMapper;
+
+    @Autowired
+    private SchedulerNodeIdentity nodeIdentity;
+
+    @Autowired
+    private ClusterMaintenanceScheduler maintenanceScheduler;
+
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(List.of(), 0);
+    private volatile List<SchedulerNode> liveNodes = List.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        heartbeat();
+        maintenanceScheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs);
+    }
+
+    /**
+     * 写入心跳并按存活节点重建哈希环（在集群维护线程上定期执行）
+     */
+    public void heartbeat() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            nodeMapper.heartbeat(nodeIdentity.getNodeId(), nodeIdentity.getHost());
+            List<SchedulerNode> nodes = nodeMapper.findLive(heartbeatTtlMs);
+            // 与哈希环一致按 String 排序；数据库 ORDER BY 受排序规则影响（大小写不敏感），顺序可能不同
+            List<String> nodeIds = nodes.stream().map(SchedulerNode::getNodeId).sorted().toList();
+            if (!nodeIds.equals(ring.getNodes())) {
+                log.info("调度节点变化：{} -> {}，重新分配任务", ring.getNodes(), nodeIds);
+                ring = new ConsistentHashRing(nodeIds, virtualNodes);
+            }
+            liveNodes = nodes;
+            nodeMapper.deleteExpired(heartbeatTtlMs * 10);
+        } catch (Exception e) {
+            log.warn("调度节点心跳失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 任务是否归本节点执行
+     * 未启用分片或哈希环为空（如数据库不可用）时返回true，由任务锁保证不重复执行
+     */
+    public boolean owns(String taskCode) {
+        ConsistentHashRing current = ring;
+        if (!isEnabled() || current.isEmpty()) {
+            return true;
+        }
+        return nodeIdentity.getNodeId().equals(current.ownerOf(taskCode));
+    }
+
+    /**
+     * 任务当前归属的节点
+     */
+    public String ownerOf(String taskCode) {
+        return ring.ownerOf(taskCode);
+    }
+
+    public boolean isEnabled() {
+        return CLUSTER_MODE_SHARD.equals(clusterMode);
+    }
+
+    public List<SchedulerNode> getLiveNodes() {
+        return liveNodes;
+    }
+
+    /**
+     * 下线时删除心跳记录，其他节点下一次心跳即可接管本节点的任务
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            nodeMapper.deleteByNodeId(nodeIdentity.getNodeId());
+        } catch (Exception e) {
+            log.warn("删除调度节点记录失败：{}", e.getMessage());
+        }
+    }
+}
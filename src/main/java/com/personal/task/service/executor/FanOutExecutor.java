@@ -0,0 +1,181 @@
+package com.personal.task.service.executor;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行调用执行器
+ * 在有界线程池上并行执行一组调用，按完成顺序收集结果，整体耗时取决于最慢的一次调用而不是所有调用之和。
+ * 可限制单次执行的并发数（滑动窗口）。超过超时时间仍未完成的调用会被取消（中断执行线程）并记为timeout；
+ * 线程池和队列都满时新调用记为rejected。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class FanOutExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public FanOutExecutor(@Value("${app.keepalive.fan-out.threads:8}") int threads,
+                          @Value("${app.keepalive.fan-out.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "fan-out-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 并行执行一组调用并等待全部完成或超时
+     *
+     * @param calls 调用名称 -> 调用
+     * @param timeoutMs 单次调用的超时时间（毫秒），从提交算起
+     * @return 各调用的结果，顺序与传入顺序一致
+     */
+    public <T> List<FanOutResult<T>> invokeAll(Map<String, Callable<T>> calls, long timeoutMs) {
+        return invokeAll(calls, timeoutMs, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 以有限并发并行执行一组调用：同时最多 maxConcurrency 个调用在执行，每完成一个再提交下一个
+     *
+     * @param calls 调用名称 -> 调用
+     * @param timeoutMs 单次调用的超时时间（毫秒），从提交算起
+     * @param maxConcurrency 最大并发数
+     * @return 各调用的结果，顺序与传入顺序一致
+     */
+    public <T> List<FanOutResult<T>> invokeAll(Map<String, Callable<T>> calls, long timeoutMs, int maxConcurrency) {
+        long startNanos = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        int concurrency = Math.max(1, maxConcurrency);
+
+        ExecutorCompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<T>, Submitted> pending = new HashMap<>();
+        Map<String, FanOutResult<T>> results = new LinkedHashMap<>();
+        calls.keySet().forEach(name -> results.put(name, null));
+        Iterator<Map.Entry<String, Callable<T>>> waiting = calls.entrySet().iterator();
+
+        try {
+            while (true) {
+                // 补足并发窗口
+                while (pending.size() < concurrency && waiting.hasNext()) {
+                    Map.Entry<String, Callable<T>> entry = waiting.next();
+                    try {
+                        Future<T> future = completionService.submit(entry.getValue());
+                        long now = System.nanoTime();
+                        pending.put(future, new Submitted(entry.getKey(), now, now + timeoutNanos));
+                    } catch (RejectedExecutionException e) {
+                        results.put(entry.getKey(), new FanOutResult<>(entry.getKey(), FanOutResult.REJECTED, null,
+                                "并行执行队列已满", 0));
+                    }
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+
+                long earliestDeadline = pending.values().stream().mapToLong(Submitted::deadline).min().orElseThrow();
+                Future<T> future = completionService.poll(Math.max(0, earliestDeadline - System.nanoTime()),
+                        TimeUnit.NANOSECONDS);
+                if (future != null) {
+                    Submitted submitted = pending.remove(future);
+                    if (submitted != null) {
+                        results.put(submitted.name(), collect(submitted.name(), future, elapsedMs(submitted.startNanos())));
+                    }
+                    continue;
+                }
+                // 超时未完成的调用取消并记为超时
+                long now = System.nanoTime();
+                Iterator<Map.Entry<Future<T>, Submitted>> iterator = pending.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Future<T>, Submitted> entry = iterator.next();
+                    Submitted submitted = entry.getValue();
+                    if (submitted.deadline() - now <= 0) {
+                        entry.getKey().cancel(true);
+                        iterator.remove();
+                        results.put(submitted.name(), new FanOutResult<>(submitted.name(), FanOutResult.TIMEOUT, null,
+                                "调用超时（" + timeoutMs + "ms）", elapsedMs(submitted.startNanos())));
+                        log.warn("并行调用 {} 超时（{}ms），已取消", submitted.name(), timeoutMs);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.forEach((future, submitted) -> {
+                future.cancel(true);
+                results.put(submitted.name(), new FanOutResult<>(submitted.name(), FanOutResult.FAILED, null,
+                        "等待结果时被中断", elapsedMs(submitted.startNanos())));
+            });
+            waiting.forEachRemaining(entry -> results.put(entry.getKey(),
+                    new FanOutResult<>(entry.getKey(), FanOutResult.FAILED, null, "等待结果时被中断", 0)));
+        }
+
+        log.debug("并行调用完成，数量：{}，总耗时：{}ms", calls.size(), elapsedMs(startNanos));
+        return new ArrayList<>(results.values());
+    }
+
+    private static <T> FanOutResult<T> collect(String name, Future<T> future, long durationMs) {
+        try {
+            return new FanOutResult<>(name, FanOutResult.SUCCESS, future.get(), null, durationMs);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return new FanOutResult<>(name, FanOutResult.FAILED, null, cause.getMessage(), durationMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new FanOutResult<>(name, FanOutResult.FAILED, null, "等待结果时被中断", durationMs);
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 线程池大小（嵌套使用时外层并发应小于该值，给内层调用留出线程）
+     */
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    private record Submitted(String name, long startNanos, long deadline) {
+    }
+
+    /**
+     * 线程池状态
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "poolSize", executor.getPoolSize(),
+                "active", executor.getActiveCount(),
+                "queued", executor.getQueue().size(),
+                "completed", executor.getCompletedTaskCount()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,24 @@
+package com.personal.task.service.executor;
+
+/**
+ * 并行调用中单个调用的结果
+ *
+ * @param name 调用名称（如平台代码）
+ * @param status 结果状态：success / failed / timeout / rejected
+ * @param value 返回值，未成功时为null
+ * @param error 错误信息，成功时为null
+ * @param durationMs 从提交到完成（或超时）的耗时
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public record FanOutResult<T>(String name, String status, T value, String error, long durationMs) {
+
+    public static final String SUCCESS = "success";
+    public static final String FAILED = "failed";
+    public static final String TIMEOUT = "timeout";
+    public static final String REJECTED = "rejected";
+
+    public boolean isSuccess() {
+        return SUCCESS.equals(status);
+    }
+}
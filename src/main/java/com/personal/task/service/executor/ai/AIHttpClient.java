@@ -0,0 +1,93 @@
+package com.personal.task.service.executor.ai;
+
+import com.personal.task.service.invoker.TaskRunContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * AI平台HTTP调用（所有平台共用 aiWebClient 连接池）
+ * 这里只承载保活调用，不计入Key的真实调用活动；真实调用由AI网关（ChatCompletionProxy）转发并记录。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class AIHttpClient {
+
+    private final WebClient webClient;
+
+    @Autowired
+    public AIHttpClient(@Qualifier("aiWebClient") WebClient aiWebClient) {
+        this.webClient = aiWebClient;
+    }
+
+    /**
+     * 保活调用：以Bearer认证POST JSON请求，不计入Key的真实调用活动
+     */
+    public String postKeepAlive(String url, String apiKey, Object body) {
+        return post(url, apiKey, body);
+    }
+
+    /**
+     * 保活调用：以Bearer认证GET请求（如模型列表），不计入Key的真实调用活动
+     */
+    public String getKeepAlive(String url, String apiKey) {
+        return await(webClient.get()
+                .uri(url)
+                .headers(headers -> headers.setBearerAuth(apiKey))
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(String.class));
+    }
+
+    /**
+     * 以Bearer认证POST JSON请求，同步等待响应体
+     *
+     * @param url 完整请求地址
+     * @param apiKey API Key
+     * @param body 请求体
+     * @return 响应体字符串
+     * @throws AIPlatformException 非2xx响应或网络错误
+     */
+    private String post(String url, String apiKey, Object body) {
+        return await(webClient.post()
+                .uri(url)
+                .headers(headers -> headers.setBearerAuth(apiKey))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(String.class));
+    }
+
+    /**
+     * 同步等待响应体，异常统一转换为 AIPlatformException
+     * 在定时任务中调用时，等待时间不超过任务剩余时间；任务超时中断执行线程时立即取消请求
+     */
+    private String await(Mono<String> response) {
+        long remainingMs = TaskRunContext.remainingMillis(Long.MAX_VALUE);
+        try {
+            return remainingMs == Long.MAX_VALUE ? response.block() : response.block(Duration.ofMillis(remainingMs));
+        } catch (WebClientResponseException e) {
+            throw new AIPlatformException(e.getStatusCode().value(),
+                    e.getStatusCode().value() + " " + e.getStatusText() + ": " + e.getResponseBodyAsString(), e);
+        } catch (AIPlatformException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof InterruptedException) {
+                // block() 被中断时已取消订阅（关闭连接），这里恢复中断标记让上层感知取消
+                Thread.currentThread().interrupt();
+                throw new AIPlatformException(0, "调用已取消（任务超时）", e);
+            }
+            throw new AIPlatformException(0, cause.getClass().getSimpleName() + ": " + cause.getMessage(), e);
+        }
+    }
+}
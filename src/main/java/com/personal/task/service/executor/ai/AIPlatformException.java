@@ -0,0 +1,21 @@
+package com.personal.task.service.executor.ai;
+
+/**
+ * AI平台调用异常，携带HTTP状态码（网络错误、超时等没有响应时为0）
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public class AIPlatformException extends RuntimeException {
+
+    private final int statusCode;
+
+    public AIPlatformException(int statusCode, String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -20,6 +20,21 @@ public interface AIPlatformService {
      */
     SystemLog callKeepAlive(String apiKey, String prompt);
 
+    /**
+     * 获取对话补全接口地址（OpenAI兼容格式，供AI网关转发）
+     *
+     * @return 对话补全接口完整地址
+     */
+    String getChatCompletionsUrl();
+
+    /**
+     * 掩码API Key（日志、Token用量统计中标识Key的统一格式）
+     *
+     * @param apiKey API Key
+     * @return 掩码后的Key（如：sk-****abcd）
+     */
+    String maskApiKey(String apiKey);
+
     /**
      * 获取平台代码
      *
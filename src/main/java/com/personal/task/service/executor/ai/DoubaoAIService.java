@@ -1,13 +1,15 @@
 package com.personal.task.service.executor.ai;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.personal.system.log.entity.SystemLog;
+import com.personal.task.service.executor.ai.probe.KeepAliveProbe;
+import com.personal.task.service.executor.ai.probe.KeepAliveProbeRegistry;
+import com.personal.task.service.executor.ai.probe.ProbeResult;
+import com.personal.task.service.executor.ai.probe.ProbeTarget;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -34,7 +36,16 @@ public class DoubaoAIService implements AIPlatformService {
     @Value("${ai.doubao.temperature:0.10}")
     private Double temperature;
 
-    private final RestTemplate restTemplate;
+    @Value("${ai.doubao.models.url:https://ark.cn-beijing.volces.com/api/v3/models}")
+    private String modelsUrl;
+
+    @Value("${ai.doubao.tokenizer.url:https://ark.cn-beijing.volces.com/api/v3/tokenization}")
+    private String tokenizerUrl;
+
+    @Autowired
+    private KeepAliveProbeRegistry probeRegistry;
+
+    private final AIHttpClient httpClient;
     private final ObjectMapper objectMapper;
 
     // 保活提示词池
@@ -46,8 +57,9 @@ public class DoubaoAIService implements AIPlatformService {
         "Hi"
     );
 
-    public DoubaoAIService() {
-        this.restTemplate = new RestTemplate();
+    @Autowired
+    public DoubaoAIService(AIHttpClient httpClient) {
+        this.httpClient = httpClient;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -61,61 +73,26 @@ public class DoubaoAIService implements AIPlatformService {
         systemLog.setTaskCode(getTaskCode());
         systemLog.setLogTitle(getPlatformName() + "保活任务执行");
         systemLog.setModel(model);
+        systemLog.setApiKeyMasked(maskApiKey(apiKey));
 
         // 如果没有指定prompt，随机选择一个
         if (prompt == null || prompt.isEmpty()) {
             prompt = KEEPALIVE_PROMPTS.get(new Random().nextInt(KEEPALIVE_PROMPTS.size()));
         }
 
+        KeepAliveProbe probe = probeRegistry.resolve(getPlatformCode());
+
         try {
             // 掩码API Key
             String maskedKey = maskApiKey(apiKey);
 
-            // 构建请求体
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-
-            List<Map<String, String>> messages = new ArrayList<>();
-            Map<String, String> message = new HashMap<>();
-            message.put("role", "user");
-            message.put("content", prompt);
-            messages.add(message);
-            requestBody.put("messages", messages);
-
-            requestBody.put("max_tokens", maxTokens);
-
-            // 设置请求头
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Authorization", "Bearer " + apiKey);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            // 发送请求
-            log.info("调用豆包API保活接口，提问：{}", prompt);
-            ResponseEntity<String> response = restTemplate.exchange(
-                apiUrl,
-                HttpMethod.POST,
-                entity,
-                String.class
-            );
-
-            // 解析响应
-            String responseBody = response.getBody();
-            JsonNode root = objectMapper.readTree(responseBody);
-
-            // 提取token消耗
-            JsonNode usage = root.path("usage");
-            int promptTokens = usage.path("prompt_tokens").asInt();
-            int completionTokens = usage.path("completion_tokens").asInt();
-            int totalTokens = usage.path("total_tokens").asInt();
-
-            // 提取响应内容
-            JsonNode choices = root.path("choices");
-            String content = "";
-            if (choices.isArray() && choices.size() > 0) {
-                content = choices.get(0).path("message").path("content").asText();
-            }
+            // 按平台配置的探测方式执行
+            log.info("调用豆包API保活接口，探测方式：{}，提问：{}", probe.getStrategy(), prompt);
+            ProbeResult result = probe.probe(apiKey, buildProbeTarget(prompt));
+            int promptTokens = result.promptTokens();
+            int completionTokens = result.completionTokens();
+            int totalTokens = result.totalTokens();
+            String content = result.content();
 
             // 构建日志内容（JSON格式）
             Map<String, Object> logContent = new HashMap<>();
@@ -126,21 +103,30 @@ public class DoubaoAIService implements AIPlatformService {
             logContent.put("completionTokens", completionTokens);
             logContent.put("totalTokens", totalTokens);
             logContent.put("model", model);
+            logContent.put("probe", probe.getStrategy());
 
             systemLog.setLogContent(objectMapper.writeValueAsString(logContent));
-            systemLog.setLogTitle(String.format("豆包AI保活成功 - Token消耗: %d", totalTokens));
+            systemLog.setPromptTokens(promptTokens);
+            systemLog.setCompletionTokens(completionTokens);
+            systemLog.setTotalTokens(totalTokens);
+            systemLog.setLogTitle(String.format("豆包AI保活成功（%s） - Token消耗: %d", probe.getStrategy(), totalTokens));
             systemLog.setStatus("success");
+            systemLog.setResponseStatus(200);
 
             log.info("豆包API调用成功，Token消耗：{}，响应：{}", totalTokens, content);
 
         } catch (Exception e) {
             systemLog.setStatus("failed");
             systemLog.setErrorMessage(e.getMessage());
+            if (e instanceof AIPlatformException platformException) {
+                systemLog.setResponseStatus(platformException.getStatusCode());
+            }
 
             // 错误日志内容
             Map<String, Object> logContent = new HashMap<>();
             logContent.put("apiKeyMasked", maskApiKey(apiKey));
             logContent.put("prompt", prompt);
+            logContent.put("probe", probe.getStrategy());
             logContent.put("error", e.getMessage());
 
             try {
@@ -155,11 +141,29 @@ public class DoubaoAIService implements AIPlatformService {
             // 计算耗时
             long duration = System.currentTimeMillis() - startTime;
             systemLog.setDuration((int) duration);
+            probeRegistry.record(getPlatformCode(), probe.getStrategy(), "success".equals(systemLog.getStatus()),
+                    duration, systemLog.getTotalTokens() != null ? systemLog.getTotalTokens() : 0);
         }
 
         return systemLog;
     }
 
+    /**
+     * 构建探测目标（豆包保活不传温度）
+     */
+    private ProbeTarget buildProbeTarget(String prompt) {
+        // 方舟分词接口：model + text 数组
+        Map<String, Object> tokenCountBody = new HashMap<>();
+        tokenCountBody.put("model", model);
+        tokenCountBody.put("text", List.of(prompt));
+        return new ProbeTarget(apiUrl, modelsUrl, tokenizerUrl, tokenCountBody, model, maxTokens, null, prompt);
+    }
+
+    @Override
+    public String getChatCompletionsUrl() {
+        return apiUrl;
+    }
+
     @Override
     public String getPlatformCode() {
         return "doubao";
@@ -173,7 +177,8 @@ public class DoubaoAIService implements AIPlatformService {
     /**
      * 掩码API Key（隐藏敏感信息）
      */
-    private String maskApiKey(String apiKey) {
+    @Override
+    public String maskApiKey(String apiKey) {
         if (apiKey == null || apiKey.length() < 8) {
             return "ak-****";
         }
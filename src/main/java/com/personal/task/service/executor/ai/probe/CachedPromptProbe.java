@@ -0,0 +1,31 @@
+package com.personal.task.service.executor.ai.probe;
+
+import com.personal.task.service.executor.ai.AIHttpClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * 固定提问探测：每次发送完全相同的提问并只输出1个Token，
+ * 支持前缀缓存的平台对重复输入按缓存价格计费
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class CachedPromptProbe extends ChatCompletionProbe {
+
+    private static final String CACHED_PROMPT = "ping";
+
+    public CachedPromptProbe(AIHttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    public String getStrategy() {
+        return "cached_prompt";
+    }
+
+    @Override
+    public ProbeResult probe(String apiKey, ProbeTarget target) throws Exception {
+        return complete(apiKey, target, CACHED_PROMPT, 1, 0.0);
+    }
+}
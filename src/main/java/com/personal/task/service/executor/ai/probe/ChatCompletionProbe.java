@@ -0,0 +1,47 @@
+package com.personal.task.service.executor.ai.probe;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.task.service.executor.ai.AIHttpClient;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于对话补全的探测，子类决定提问和输出长度
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public abstract class ChatCompletionProbe implements KeepAliveProbe {
+
+    private final AIHttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    protected ChatCompletionProbe(AIHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    protected ProbeResult complete(String apiKey, ProbeTarget target, String prompt, int maxTokens, Double temperature)
+            throws Exception {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", target.model());
+        requestBody.put("messages", List.of(Map.of("role", "user", "content", prompt)));
+        requestBody.put("max_tokens", maxTokens);
+        if (temperature != null) {
+            requestBody.put("temperature", temperature);
+        }
+
+        JsonNode root = objectMapper.readTree(httpClient.postKeepAlive(target.chatUrl(), apiKey, requestBody));
+        JsonNode usage = root.path("usage");
+        JsonNode choices = root.path("choices");
+        String content = choices.isArray() && !choices.isEmpty()
+                ? choices.get(0).path("message").path("content").asText()
+                : "";
+        return new ProbeResult(content,
+                usage.path("prompt_tokens").asInt(),
+                usage.path("completion_tokens").asInt(),
+                usage.path("total_tokens").asInt());
+    }
+}
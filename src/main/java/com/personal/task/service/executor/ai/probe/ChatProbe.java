@@ -0,0 +1,30 @@
+package com.personal.task.service.executor.ai.probe;
+
+import com.personal.task.service.executor.ai.AIHttpClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * 对话探测（默认）：随机提问，按平台配置的最大输出Token数和温度调用对话补全
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class ChatProbe extends ChatCompletionProbe {
+
+    public static final String STRATEGY = "chat";
+
+    public ChatProbe(AIHttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    public String getStrategy() {
+        return STRATEGY;
+    }
+
+    @Override
+    public ProbeResult probe(String apiKey, ProbeTarget target) throws Exception {
+        return complete(apiKey, target, target.prompt(), target.maxTokens(), target.temperature());
+    }
+}
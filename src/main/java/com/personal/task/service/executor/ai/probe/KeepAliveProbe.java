@@ -0,0 +1,24 @@
+package com.personal.task.service.executor.ai.probe;
+
+/**
+ * 保活探测方式
+ * 不同方式的成本不同：对话补全消耗Token，模型列表和Token计数通常不计费；
+ * 选择能被平台计为活跃调用的最便宜方式，见 {@link KeepAliveProbeRegistry}
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public interface KeepAliveProbe {
+
+    /**
+     * 探测方式名称，对应系统配置 ai.{platform}.keepalive_probe 的取值
+     */
+    String getStrategy();
+
+    /**
+     * 执行一次探测
+     *
+     * @throws Exception 调用失败或响应无法解析
+     */
+    ProbeResult probe(String apiKey, ProbeTarget target) throws Exception;
+}
@@ -0,0 +1,140 @@
+package com.personal.task.service.executor.ai.probe;
+
+import com.personal.system.config.service.SystemConfigService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 保活探测方式注册表
+ * 按系统配置 ai.{platform}.keepalive_probe 为平台选择探测方式（chat / minimal_completion / cached_prompt /
+ * models_list / token_count），未配置或配置无效时使用默认方式。
+ * 按平台和探测方式统计调用次数、成功率、耗时和Token消耗（同时写入 keepalive.probe.* 指标），用于比较各方式的成本。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class KeepAliveProbeRegistry {
+
+    @Value("${app.keepalive.probe.default-strategy:chat}")
+    private String defaultStrategy;
+
+    @Autowired
+    private SystemConfigService configService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, KeepAliveProbe> probes = new LinkedHashMap<>();
+
+    /**
+     * 平台:探测方式 -> 统计
+     */
+    private final Map<String, ProbeStats> stats = new ConcurrentHashMap<>();
+
+    @Autowired
+    public KeepAliveProbeRegistry(List<KeepAliveProbe> probes) {
+        probes.forEach(probe -> this.probes.put(probe.getStrategy(), probe));
+    }
+
+    /**
+     * 平台当前使用的探测方式
+     */
+    public KeepAliveProbe resolve(String platform) {
+        String strategy = configService.getConfigValue("ai." + platform + ".keepalive_probe", defaultStrategy).trim();
+        KeepAliveProbe probe = probes.get(strategy);
+        if (probe == null) {
+            log.warn("{} 平台配置的探测方式 {} 不存在，使用 {}，可选：{}", platform, strategy, defaultStrategy, probes.keySet());
+            probe = probes.getOrDefault(defaultStrategy, probes.get(ChatProbe.STRATEGY));
+        }
+        return probe;
+    }
+
+    /**
+     * 记录一次探测
+     *
+     * @param durationMs 耗时（毫秒）
+     * @param totalTokens 计费的Token数
+     */
+    public void record(String platform, String strategy, boolean success, long durationMs, int totalTokens) {
+        ProbeStats probeStats = stats.computeIfAbsent(platform + ":" + strategy, k -> new ProbeStats(platform, strategy));
+        probeStats.calls.increment();
+        if (success) {
+            probeStats.success.increment();
+        }
+        probeStats.totalMillis.add(durationMs);
+        probeStats.totalTokens.add(totalTokens);
+
+        Timer.builder("keepalive.probe.latency")
+                .description("保活探测耗时")
+                .tag("platform", platform)
+                .tag("strategy", strategy)
+                .tag("status", success ? "success" : "failed")
+                .register(meterRegistry)
+                .record(Duration.ofMillis(durationMs));
+        DistributionSummary.builder("keepalive.probe.tokens")
+                .description("保活探测消耗的Token数")
+                .tag("platform", platform)
+                .tag("strategy", strategy)
+                .register(meterRegistry)
+                .record(totalTokens);
+    }
+
+    /**
+     * 各平台各探测方式的统计，以及各平台当前使用的方式
+     */
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        stats.values().stream()
+                .sorted((a, b) -> (a.platform + a.strategy).compareTo(b.platform + b.strategy))
+                .forEach(probeStats -> {
+                    long calls = probeStats.calls.sum();
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("platform", probeStats.platform);
+                    item.put("strategy", probeStats.strategy);
+                    item.put("calls", calls);
+                    item.put("successRate", calls > 0 ? Math.round(probeStats.success.sum() * 10000.0 / calls) / 100.0 : 0.0);
+                    item.put("avgMillis", calls > 0 ? probeStats.totalMillis.sum() / calls : 0);
+                    item.put("avgTokens", calls > 0 ? Math.round(probeStats.totalTokens.sum() * 100.0 / calls) / 100.0 : 0.0);
+                    item.put("totalTokens", probeStats.totalTokens.sum());
+                    result.add(item);
+                });
+        return result;
+    }
+
+    /**
+     * 可用的探测方式
+     */
+    public List<String> getStrategies() {
+        return new ArrayList<>(probes.keySet());
+    }
+
+    private static final class ProbeStats {
+
+        private final String platform;
+        private final String strategy;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder success = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAdder totalTokens = new LongAdder();
+
+        ProbeStats(String platform, String strategy) {
+            this.platform = platform;
+            this.strategy = strategy;
+        }
+    }
+}
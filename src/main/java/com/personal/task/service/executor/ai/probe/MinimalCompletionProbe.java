@@ -0,0 +1,28 @@
+package com.personal.task.service.executor.ai.probe;
+
+import com.personal.task.service.executor.ai.AIHttpClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * 最小补全探测：单字符提问、只输出1个Token，是仍然走对话补全的最便宜方式
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class MinimalCompletionProbe extends ChatCompletionProbe {
+
+    public MinimalCompletionProbe(AIHttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    public String getStrategy() {
+        return "minimal_completion";
+    }
+
+    @Override
+    public ProbeResult probe(String apiKey, ProbeTarget target) throws Exception {
+        return complete(apiKey, target, "1", 1, 0.0);
+    }
+}
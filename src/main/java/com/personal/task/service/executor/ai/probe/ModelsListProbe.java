@@ -0,0 +1,34 @@
+package com.personal.task.service.executor.ai.probe;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.task.service.executor.ai.AIHttpClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * 模型列表探测：用Key请求模型列表接口，不消耗Token
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class ModelsListProbe implements KeepAliveProbe {
+
+    private final AIHttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ModelsListProbe(AIHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public String getStrategy() {
+        return "models_list";
+    }
+
+    @Override
+    public ProbeResult probe(String apiKey, ProbeTarget target) throws Exception {
+        JsonNode root = objectMapper.readTree(httpClient.getKeepAlive(target.modelsUrl(), apiKey));
+        return ProbeResult.free("models: " + root.path("data").size());
+    }
+}
@@ -0,0 +1,18 @@
+package com.personal.task.service.executor.ai.probe;
+
+/**
+ * 保活探测结果
+ *
+ * @param content 响应摘要（对话内容、模型数量或计数结果）
+ * @param promptTokens 计费的输入Token数
+ * @param completionTokens 计费的输出Token数
+ * @param totalTokens 计费的Token总数，不消耗Token的探测为0
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public record ProbeResult(String content, int promptTokens, int completionTokens, int totalTokens) {
+
+    public static ProbeResult free(String content) {
+        return new ProbeResult(content, 0, 0, 0);
+    }
+}
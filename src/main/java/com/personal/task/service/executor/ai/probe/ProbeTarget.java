@@ -0,0 +1,21 @@
+package com.personal.task.service.executor.ai.probe;
+
+import java.util.Map;
+
+/**
+ * 保活探测目标：平台提供的各探测方式所需的地址和参数
+ *
+ * @param chatUrl 对话补全地址
+ * @param modelsUrl 模型列表地址
+ * @param tokenCountUrl Token计数地址
+ * @param tokenCountBody Token计数请求体（各平台格式不同，由平台构建）
+ * @param model 模型
+ * @param maxTokens 对话探测的最大输出Token数
+ * @param temperature 对话探测的温度，为空时不传
+ * @param prompt 对话探测的提问
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public record ProbeTarget(String chatUrl, String modelsUrl, String tokenCountUrl, Map<String, Object> tokenCountBody,
+                          String model, int maxTokens, Double temperature, String prompt) {
+}
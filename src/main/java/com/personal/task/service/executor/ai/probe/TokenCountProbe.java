@@ -0,0 +1,40 @@
+package com.personal.task.service.executor.ai.probe;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.task.service.executor.ai.AIHttpClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token计数探测：调用平台的分词/计数接口，只计数不生成，不按Token计费
+ * 响应格式兼容 usage.prompt_tokens（智谱）和 data[0].total_tokens（方舟）
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class TokenCountProbe implements KeepAliveProbe {
+
+    private final AIHttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public TokenCountProbe(AIHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public String getStrategy() {
+        return "token_count";
+    }
+
+    @Override
+    public ProbeResult probe(String apiKey, ProbeTarget target) throws Exception {
+        JsonNode root = objectMapper.readTree(
+                httpClient.postKeepAlive(target.tokenCountUrl(), apiKey, target.tokenCountBody()));
+        JsonNode counted = root.path("usage").path("prompt_tokens");
+        if (counted.isMissingNode()) {
+            counted = root.path("data").path(0).path("total_tokens");
+        }
+        return ProbeResult.free("tokens: " + counted.asInt());
+    }
+}
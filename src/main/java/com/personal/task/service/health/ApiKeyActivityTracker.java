@@ -0,0 +1,102 @@
+package com.personal.task.service.health;
+
+import com.personal.system.config.service.SystemConfigService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * API Key真实调用活动记录（仅内存）
+ * AI网关（ChatCompletionProxy）转发成功后记录Key的最近使用时间；保活时如果Key在平台的空闲窗口内有过真实调用，说明Key本身就是活跃的，
+ * 跳过这次保活，节省调用次数和Token。保活调用本身不计入活动。
+ * 空闲窗口由系统配置 ai.{platform}.keepalive_idle_window_minutes 决定，未配置时使用默认值，配置为0表示不跳过。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Component
+public class ApiKeyActivityTracker {
+
+    @Value("${app.keepalive.activity.idle-window-minutes:10}")
+    private int defaultIdleWindowMinutes;
+
+    @Autowired
+    private SystemConfigService configService;
+
+    /**
+     * Key哈希 -> 最近一次真实调用时间（毫秒时间戳）
+     */
+    private final Map<String, Long> lastUsed = new ConcurrentHashMap<>();
+
+    /**
+     * 平台代码 -> 因近期有真实调用而跳过的保活次数
+     */
+    private final Map<String, AtomicLong> skipped = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次真实调用
+     */
+    public void recordUse(String apiKey) {
+        lastUsed.put(ApiKeyHealthRegistry.hash(apiKey), System.currentTimeMillis());
+    }
+
+    /**
+     * Key是否仍在空闲窗口内（近期有真实调用，可以跳过保活）
+     *
+     * @param idleWindowMs 空闲窗口（毫秒），见 {@link #getIdleWindowMs(String)}
+     */
+    public boolean isRecentlyUsed(String apiKey, long idleWindowMs) {
+        if (idleWindowMs <= 0) {
+            return false;
+        }
+        Long last = lastUsed.get(ApiKeyHealthRegistry.hash(apiKey));
+        return last != null && System.currentTimeMillis() - last < idleWindowMs;
+    }
+
+    /**
+     * 记录一次因近期有真实调用而跳过的保活
+     */
+    public void recordSkip(String platform) {
+        skipped.computeIfAbsent(platform, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * 平台的空闲窗口（毫秒），0表示不跳过
+     */
+    public long getIdleWindowMs(String platform) {
+        return configService.getConfigValueAsInt("ai." + platform + ".keepalive_idle_window_minutes",
+                defaultIdleWindowMinutes) * 60_000L;
+    }
+
+    /**
+     * 各Key的最近真实调用时间和各平台的跳过次数
+     */
+    public Map<String, Object> getActivity() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> keys = new ArrayList<>();
+        lastUsed.forEach((keyHash, last) -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("keyHash", keyHash);
+            item.put("lastUsedAt", last);
+            item.put("idleSeconds", (now - last) / 1000);
+            keys.add(item);
+        });
+        keys.sort(Comparator.comparing(item -> (Long) item.get("idleSeconds")));
+
+        Map<String, Long> skippedByPlatform = new LinkedHashMap<>();
+        skipped.forEach((platform, count) -> skippedByPlatform.put(platform, count.get()));
+
+        Map<String, Object> activity = new LinkedHashMap<>();
+        activity.put("keys", keys);
+        activity.put("skipped", skippedByPlatform);
+        return activity;
+    }
+}
@@ -0,0 +1,83 @@
+package com.personal.task.service.health;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * 单个API Key的健康状态（熔断器状态）
+ * 只保存Key的哈希和掩码，不保存Key本身，可直接持久化和对外展示
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ApiKeyHealth {
+
+    public static final String CLOSED = "closed";
+    public static final String OPEN = "open";
+    public static final String HALF_OPEN = "half_open";
+
+    /**
+     * 平台代码
+     */
+    private String platform;
+
+    /**
+     * Key的SHA-256哈希前16位
+     */
+    private String keyHash;
+
+    /**
+     * 掩码后的Key
+     */
+    private String keyMasked;
+
+    /**
+     * 熔断状态：closed / open / half_open
+     */
+    private String state = CLOSED;
+
+    /**
+     * 连续失败次数
+     */
+    private int consecutiveFailures;
+
+    /**
+     * 熔断截止时间（毫秒时间戳），之后允许一次半开探测
+     */
+    private long openUntil;
+
+    /**
+     * 当前退避时长（毫秒）
+     */
+    private long backoffMs;
+
+    private long lastSuccessAt;
+    private long lastFailureAt;
+    private int lastStatusCode;
+    private String lastError;
+    private long totalSuccess;
+    private long totalFailure;
+
+    /**
+     * 复制当前状态，用于对外返回和持久化（调用方持有该对象的锁）
+     */
+    public ApiKeyHealth copy() {
+        ApiKeyHealth copy = new ApiKeyHealth();
+        copy.setPlatform(platform);
+        copy.setKeyHash(keyHash);
+        copy.setKeyMasked(keyMasked);
+        copy.setState(state);
+        copy.setConsecutiveFailures(consecutiveFailures);
+        copy.setOpenUntil(openUntil);
+        copy.setBackoffMs(backoffMs);
+        copy.setLastSuccessAt(lastSuccessAt);
+        copy.setLastFailureAt(lastFailureAt);
+        copy.setLastStatusCode(lastStatusCode);
+        copy.setLastError(lastError);
+        copy.setTotalSuccess(totalSuccess);
+        copy.setTotalFailure(totalFailure);
+        return copy;
+    }
+}
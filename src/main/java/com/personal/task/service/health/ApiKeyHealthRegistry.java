@@ -0,0 +1,279 @@
+package com.personal.task.service.health;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.system.config.service.SystemConfigService;
+import com.personal.task.service.executor.ai.AIPlatformFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * API Key健康状态注册表（熔断器）
+ * 连续失败达到阈值后熔断（open），熔断期内选择Key时跳过；熔断期按指数退避增长。
+ * 熔断期结束后允许一次半开（half_open）探测：成功则恢复，失败则以加倍的退避时间再次熔断。
+ * 401/403 等认证错误直接熔断。状态定期以JSON快照写入系统配置，重启后恢复。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class ApiKeyHealthRegistry {
+
+    private static final String SNAPSHOT_CONFIG_KEY = "ai.keepalive.key_health";
+    private static final int MAX_ERROR_LENGTH = 200;
+
+    @Value("${app.keepalive.breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${app.keepalive.breaker.base-backoff-ms:60000}")
+    private long baseBackoffMs;
+
+    @Value("${app.keepalive.breaker.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Autowired
+    private SystemConfigService configService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AIPlatformFactory platformFactory;
+
+    /**
+     * 平台:Key哈希 -> 健康状态
+     */
+    private final Map<String, ApiKeyHealth> states = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    @PostConstruct
+    public void load() {
+        try {
+            List<ApiKeyHealth> snapshot = configService.getConfigValueAsJson(SNAPSHOT_CONFIG_KEY,
+                    new TypeReference<List<ApiKeyHealth>>() {});
+            if (snapshot != null) {
+                snapshot.forEach(health -> {
+                    // 旧快照中的掩码可能包含Key前缀，丢弃后在下次调用时按平台掩码重新生成
+                    health.setKeyMasked(null);
+                    states.put(id(health.getPlatform(), health.getKeyHash()), health);
+                });
+                log.info("已恢复 {} 个API Key的健康状态", snapshot.size());
+            }
+        } catch (Exception e) {
+            log.warn("恢复API Key健康状态失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 是否允许使用该Key
+     * 熔断期内返回false；熔断期已过时转为半开并只放行一次探测
+     */
+    public boolean allowRequest(String platform, String apiKey) {
+        ApiKeyHealth health = states.get(id(platform, hash(apiKey)));
+        if (health == null) {
+            return true;
+        }
+        synchronized (health) {
+            switch (health.getState()) {
+                case ApiKeyHealth.OPEN -> {
+                    if (System.currentTimeMillis() < health.getOpenUntil()) {
+                        return false;
+                    }
+                    health.setState(ApiKeyHealth.HALF_OPEN);
+                    dirty = true;
+                    log.info("{} 平台Key {} 熔断期结束，进行半开探测", platform, health.getKeyMasked());
+                    return true;
+                }
+                case ApiKeyHealth.HALF_OPEN -> {
+                    // 探测结果未返回前不再放行；探测方异常退出时，超过一个退避周期后允许重新探测
+                    return System.currentTimeMillis() >= health.getOpenUntil() + health.getBackoffMs();
+                }
+                default -> {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * 记录调用成功
+     */
+    public void recordSuccess(String platform, String apiKey) {
+        ApiKeyHealth health = getOrCreate(platform, apiKey);
+        synchronized (health) {
+            if (health.getKeyMasked() == null) {
+                health.setKeyMasked(mask(platform, apiKey));
+            }
+            if (!ApiKeyHealth.CLOSED.equals(health.getState())) {
+                log.info("{} 平台Key {} 已恢复", platform, health.getKeyMasked());
+            }
+            health.setState(ApiKeyHealth.CLOSED);
+            health.setConsecutiveFailures(0);
+            health.setBackoffMs(0);
+            health.setOpenUntil(0);
+            health.setLastSuccessAt(System.currentTimeMillis());
+            health.setTotalSuccess(health.getTotalSuccess() + 1);
+        }
+        dirty = true;
+    }
+
+    /**
+     * 记录调用失败
+     *
+     * @param statusCode HTTP状态码，没有响应时为0
+     * @param error 错误信息
+     */
+    public void recordFailure(String platform, String apiKey, int statusCode, String error) {
+        ApiKeyHealth health = getOrCreate(platform, apiKey);
+        long now = System.currentTimeMillis();
+        synchronized (health) {
+            if (health.getKeyMasked() == null) {
+                health.setKeyMasked(mask(platform, apiKey));
+            }
+            health.setConsecutiveFailures(health.getConsecutiveFailures() + 1);
+            health.setTotalFailure(health.getTotalFailure() + 1);
+            health.setLastFailureAt(now);
+            health.setLastStatusCode(statusCode);
+            health.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                    ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+            boolean authError = statusCode == 401 || statusCode == 403;
+            boolean halfOpen = ApiKeyHealth.HALF_OPEN.equals(health.getState());
+            if (authError || halfOpen || health.getConsecutiveFailures() >= failureThreshold) {
+                long backoff = halfOpen && health.getBackoffMs() > 0
+                        ? health.getBackoffMs() * 2
+                        : nextBackoff(health.getConsecutiveFailures(), authError);
+                backoff = Math.min(backoff, maxBackoffMs);
+                health.setBackoffMs(backoff);
+                health.setOpenUntil(now + backoff);
+                health.setState(ApiKeyHealth.OPEN);
+                log.warn("{} 平台Key {} 熔断 {} 秒，连续失败 {} 次，状态码：{}", platform, health.getKeyMasked(),
+                        backoff / 1000, health.getConsecutiveFailures(), statusCode);
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * 连续失败达到阈值后，退避时间从基础值开始每多失败一次翻倍；认证错误直接使用最大退避
+     */
+    private long nextBackoff(int consecutiveFailures, boolean authError) {
+        if (authError) {
+            return maxBackoffMs;
+        }
+        int exponent = Math.min(Math.max(0, consecutiveFailures - failureThreshold), 20);
+        return baseBackoffMs << exponent;
+    }
+
+    /**
+     * 手动重置Key的健康状态
+     *
+     * @return 是否存在该Key
+     */
+    public boolean reset(String platform, String keyHash) {
+        ApiKeyHealth removed = states.remove(id(platform, keyHash));
+        dirty = true;
+        return removed != null;
+    }
+
+    /**
+     * 查询健康状态
+     *
+     * @param platform 平台代码，为空时返回全部
+     * @return 状态副本，修改不影响注册表
+     */
+    public List<ApiKeyHealth> getStates(String platform) {
+        List<ApiKeyHealth> result = new ArrayList<>();
+        for (ApiKeyHealth health : states.values()) {
+            if (platform == null || platform.isEmpty() || platform.equals(health.getPlatform())) {
+                result.add(copyOf(health));
+            }
+        }
+        result.sort(Comparator.comparing(ApiKeyHealth::getPlatform).thenComparing(ApiKeyHealth::getKeyHash));
+        return result;
+    }
+
+    /**
+     * 状态有变化时持久化快照
+     */
+    @Scheduled(fixedDelayString = "${app.keepalive.breaker.persist-interval-ms:60000}")
+    public void persist() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            List<ApiKeyHealth> snapshot = states.values().stream().map(ApiKeyHealthRegistry::copyOf).toList();
+            String json = objectMapper.writeValueAsString(snapshot);
+            configService.saveConfigValue(SNAPSHOT_CONFIG_KEY, json, "json", "keepalive", "API Key健康状态快照（程序维护）");
+        } catch (Exception e) {
+            dirty = true;
+            log.warn("保存API Key健康状态失败：{}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persist();
+    }
+
+    private ApiKeyHealth getOrCreate(String platform, String apiKey) {
+        String keyHash = hash(apiKey);
+        return states.computeIfAbsent(id(platform, keyHash), k -> {
+            ApiKeyHealth health = new ApiKeyHealth();
+            health.setPlatform(platform);
+            health.setKeyHash(keyHash);
+            health.setKeyMasked(mask(platform, apiKey));
+            return health;
+        });
+    }
+
+    private static ApiKeyHealth copyOf(ApiKeyHealth health) {
+        synchronized (health) {
+            return health.copy();
+        }
+    }
+
+    /**
+     * Key的哈希（SHA-256前16位十六进制），用于标识Key而不暴露Key本身
+     */
+    public static String hash(String apiKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    /**
+     * 与平台日志相同的掩码（如 sk-****abcd），不暴露Key前缀
+     */
+    private String mask(String platform, String apiKey) {
+        try {
+            return platformFactory.getService(platform).maskApiKey(apiKey);
+        } catch (IllegalArgumentException e) {
+            return "****";
+        }
+    }
+
+    private static String id(String platform, String keyHash) {
+        return platform + ":" + keyHash;
+    }
+}
@@ -0,0 +1,21 @@
+package com.personal.task.service.invoker;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记可作为定时任务执行器的方法
+ * 任务的 executor_class / executor_method 只能指向带有该注解的公共方法，
+ * 避免通过创建或修改任务调用任意Bean上的方法。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TaskExecutorMethod {
+}
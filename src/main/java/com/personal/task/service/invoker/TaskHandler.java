@@ -0,0 +1,21 @@
+package com.personal.task.service.invoker;
+
+import com.personal.task.entity.ScheduledTask;
+
+/**
+ * 任务执行入口
+ * 由 {@link TaskInvoker} 按任务的 executor_class / executor_method 生成，调用开销与直接方法调用相同
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@FunctionalInterface
+public interface TaskHandler {
+
+    /**
+     * 执行任务
+     *
+     * @param task 任务配置
+     */
+    void execute(ScheduledTask task) throws Throwable;
+}
@@ -0,0 +1,172 @@
+package com.personal.task.service.invoker;
+
+import com.personal.task.entity.ScheduledTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 通用任务调用器
+ * 把任务的 executor_class（Bean名称或类全名）和 executor_method 解析为Spring Bean上的公共方法，
+ * 方法必须标注 {@link TaskExecutorMethod}，签名为 (ScheduledTask) 或无参。解析结果用 LambdaMetafactory 生成 {@link TaskHandler} 实现并缓存，
+ * 之后每次调度都是一次普通的接口调用；LambdaMetafactory 不可用时（如类加载器不可见）退回到 MethodHandle 调用。
+ * 未配置 executor_class 的任务按任务类型使用默认执行方法。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class TaskInvoker {
+
+    /**
+     * 任务类型 -> 默认执行方法（Bean名称#方法名）
+     */
+    private static final Map<String, String> DEFAULT_EXECUTORS = Map.of(
+            "keepalive", "keepAliveSchedulerService#runKeepAliveTask"
+    );
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    /**
+     * Bean名称#方法名 -> 调用入口
+     */
+    private final Map<String, TaskHandler> handlers = new ConcurrentHashMap<>();
+
+    /**
+     * 解析任务的执行入口，结果按执行器缓存
+     *
+     * @throws IllegalArgumentException 执行器未配置、不存在或方法签名不支持
+     */
+    public TaskHandler resolve(ScheduledTask task) {
+        String executor = executorOf(task);
+        return handlers.computeIfAbsent(executor, this::bind);
+    }
+
+    /**
+     * 任务的执行器标识：优先使用任务配置，否则使用任务类型的默认执行方法
+     */
+    private static String executorOf(ScheduledTask task) {
+        String executorClass = task.getExecutorClass();
+        String executorMethod = task.getExecutorMethod();
+        if (executorClass != null && !executorClass.isBlank()) {
+            if (executorMethod == null || executorMethod.isBlank()) {
+                throw new IllegalArgumentException("任务 " + task.getTaskCode() + " 配置了executor_class但没有executor_method");
+            }
+            return executorClass.trim() + "#" + executorMethod.trim();
+        }
+        String executor = DEFAULT_EXECUTORS.get(task.getTaskType());
+        if (executor == null) {
+            throw new IllegalArgumentException("任务 " + task.getTaskCode() + " 未配置执行器，类型 " + task.getTaskType() + " 也没有默认执行器");
+        }
+        return executor;
+    }
+
+    private TaskHandler bind(String executor) {
+        int separator = executor.indexOf('#');
+        String beanRef = executor.substring(0, separator);
+        String methodName = executor.substring(separator + 1);
+
+        Object bean = lookupBean(beanRef);
+        Class<?> userClass = ClassUtils.getUserClass(bean);
+        Method method = findMethod(userClass, methodName);
+
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("执行方法不可访问：" + executor, e);
+        }
+        if (method.getParameterCount() == 0) {
+            handle = MethodHandles.dropArguments(handle, 1, ScheduledTask.class);
+        }
+
+        try {
+            TaskHandler handler = metafactory(bean, method, handle);
+            log.info("执行器 {} 已绑定（LambdaMetafactory）", executor);
+            return handler;
+        } catch (Throwable e) {
+            log.info("执行器 {} 使用MethodHandle调用：{}", executor, e.getMessage());
+            MethodHandle bound = handle.bindTo(bean)
+                    .asType(MethodType.methodType(void.class, ScheduledTask.class));
+            return task -> bound.invokeExact(task);
+        }
+    }
+
+    private Object lookupBean(String beanRef) {
+        if (applicationContext.containsBean(beanRef)) {
+            return applicationContext.getBean(beanRef);
+        }
+        try {
+            Class<?> type = ClassUtils.forName(beanRef, applicationContext.getClassLoader());
+            return applicationContext.getBean(type);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("执行器不存在：" + beanRef);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("执行器 " + beanRef + " 不是唯一的Spring Bean：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 查找标注了 {@link TaskExecutorMethod} 的公共实例方法，优先 (ScheduledTask) 签名
+     */
+    private static Method findMethod(Class<?> type, String methodName) {
+        Method noArg = null;
+        for (Method method : type.getMethods()) {
+            if (!method.getName().equals(methodName) || Modifier.isStatic(method.getModifiers())
+                    || !AnnotatedElementUtils.hasAnnotation(method, TaskExecutorMethod.class)) {
+                continue;
+            }
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length == 1 && parameterTypes[0] == ScheduledTask.class) {
+                return method;
+            }
+            if (parameterTypes.length == 0) {
+                noArg = method;
+            }
+        }
+        if (noArg == null) {
+            throw new IllegalArgumentException("执行器 " + type.getName() + " 没有标注 @TaskExecutorMethod 的公共方法 "
+                    + methodName + "(ScheduledTask) 或 " + methodName + "()，可用方法："
+                    + Arrays.stream(type.getMethods())
+                            .filter(method -> AnnotatedElementUtils.hasAnnotation(method, TaskExecutorMethod.class))
+                            .map(Method::getName).distinct().toList());
+        }
+        return noArg;
+    }
+
+    /**
+     * 用 LambdaMetafactory 生成捕获了Bean实例的 TaskHandler
+     * 需要直接方法句柄，无参方法（已被 dropArguments 包装）只能走 MethodHandle 路径
+     */
+    private static TaskHandler metafactory(Object bean, Method method, MethodHandle handle) throws Throwable {
+        if (method.getParameterCount() == 0) {
+            throw new IllegalStateException("无参方法不支持LambdaMetafactory");
+        }
+        Class<?> receiverType = method.getDeclaringClass();
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(receiverType, MethodHandles.lookup());
+        CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "execute",
+                MethodType.methodType(TaskHandler.class, receiverType),
+                MethodType.methodType(void.class, ScheduledTask.class),
+                handle,
+                MethodType.methodType(void.class, ScheduledTask.class));
+        return (TaskHandler) site.getTarget().invoke(bean);
+    }
+}
@@ -0,0 +1,86 @@
+package com.personal.task.service.invoker;
+
+/**
+ * 当前线程正在执行的任务的上下文
+ * 调度引擎在工作线程上设置，执行方法可据此获取剩余时间、判断是否因超时被取消
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public final class TaskRunContext {
+
+    private static final ThreadLocal<TaskRunContext> CURRENT = new ThreadLocal<>();
+
+    private final String taskCode;
+
+    /**
+     * 截止时间（System.nanoTime），0表示不限时
+     */
+    private final long deadlineNanos;
+
+    private volatile boolean timedOut;
+
+    /**
+     * @param timeoutMs 超时时间（毫秒），从创建时开始计算，0表示不限时
+     */
+    public TaskRunContext(String taskCode, long timeoutMs) {
+        this.taskCode = taskCode;
+        this.deadlineNanos = timeoutMs > 0 ? System.nanoTime() + timeoutMs * 1_000_000L : 0;
+    }
+
+    public static TaskRunContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 绑定到当前线程
+     */
+    public void attach() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * 解除当前线程绑定的上下文
+     */
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 当前线程的任务是否已因超时被取消
+     */
+    public static boolean isCurrentTimedOut() {
+        TaskRunContext context = CURRENT.get();
+        return context != null && context.timedOut;
+    }
+
+    /**
+     * 当前线程的任务剩余时间（毫秒）
+     *
+     * @param defaultMs 不在任务中或不限时时返回的值
+     * @return 剩余时间与defaultMs中的较小者，不小于0
+     */
+    public static long remainingMillis(long defaultMs) {
+        TaskRunContext context = CURRENT.get();
+        if (context == null || context.deadlineNanos == 0) {
+            return defaultMs;
+        }
+        long remaining = (context.deadlineNanos - System.nanoTime()) / 1_000_000L;
+        return Math.max(0, Math.min(defaultMs, remaining));
+    }
+
+    public String getTaskCode() {
+        return taskCode;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * 标记为超时，由调度引擎在取消任务前调用
+     */
+    public void markTimedOut() {
+        this.timedOut = true;
+    }
+}
@@ -0,0 +1,159 @@
+package com.personal.task.service.queue;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * 一次排队执行的任务
+ * 状态流转：queued -> running -> success / failed / timeout；排队中可被取消（cancelled / timeout）
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public final class TaskRun implements Comparable<TaskRun> {
+
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String SUCCESS = "success";
+    public static final String FAILED = "failed";
+    public static final String TIMEOUT = "timeout";
+    public static final String CANCELLED = "cancelled";
+
+    /**
+     * 优先级：数值越小越先执行
+     */
+    public enum Priority {
+        MANUAL(0),
+        SCHEDULED(1);
+
+        private final int order;
+
+        Priority(int order) {
+            this.order = order;
+        }
+    }
+
+    /**
+     * 执行内容返回该值表示执行失败但有结果（如失败的保活日志）：运行以 failed 结束，value 作为运行结果
+     *
+     * @param value 运行结果
+     */
+    public record FailedResult(Object value) {
+    }
+
+    private final String runId;
+    private final String dedupKey;
+    private final Priority priority;
+    private final long sequence;
+    private final String description;
+    private final Callable<Object> body;
+    private final Consumer<TaskRun> onComplete;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile String status = QUEUED;
+    private volatile String cancelReason;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Object result;
+    private volatile String error;
+
+    /**
+     * 执行中的工作线程，用于取消时中断
+     */
+    volatile Thread runner;
+
+    TaskRun(String runId, String dedupKey, Priority priority, long sequence, String description,
+            Callable<Object> body, Consumer<TaskRun> onComplete) {
+        this.runId = runId;
+        this.dedupKey = dedupKey;
+        this.priority = priority;
+        this.sequence = sequence;
+        this.description = description;
+        this.body = body;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public int compareTo(TaskRun other) {
+        int byPriority = Integer.compare(priority.order, other.priority.order);
+        return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+    }
+
+    Callable<Object> getBody() {
+        return body;
+    }
+
+    void markRunning(Thread thread) {
+        this.runner = thread;
+        this.startedAt = LocalDateTime.now();
+        this.status = RUNNING;
+    }
+
+    /**
+     * 结束执行；被取消过的以取消原因为最终状态，抛出异常或返回 {@link FailedResult} 时为 failed
+     */
+    void finish(Object result, Throwable error) {
+        boolean failed = error != null || result instanceof FailedResult;
+        this.result = result instanceof FailedResult failedResult ? failedResult.value() : result;
+        if (error != null) {
+            this.error = error.getClass().getSimpleName() + ": " + error.getMessage();
+        }
+        this.runner = null;
+        this.finishedAt = LocalDateTime.now();
+        this.status = cancelReason != null ? cancelReason : (failed ? FAILED : SUCCESS);
+    }
+
+    void markCancelled(String reason) {
+        this.cancelReason = reason;
+    }
+
+    void complete() {
+        if (onComplete != null) {
+            onComplete.accept(this);
+        }
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public String getDedupKey() {
+        return dedupKey;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return !QUEUED.equals(status) && !RUNNING.equals(status);
+    }
+
+    /**
+     * 运行状态，用于接口返回
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("runId", runId);
+        map.put("description", description);
+        map.put("priority", priority.name().toLowerCase());
+        map.put("status", status);
+        map.put("submittedAt", submittedAt);
+        map.put("startedAt", startedAt);
+        map.put("finishedAt", finishedAt);
+        map.put("result", result);
+        map.put("error", error);
+        return map;
+    }
+}
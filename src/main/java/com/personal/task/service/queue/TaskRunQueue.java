@@ -0,0 +1,257 @@
+package com.personal.task.service.queue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 任务运行队列
+ * 手动触发和定时触发的任务都在这里排队，由固定数量的工作线程执行：
+ * <ul>
+ *     <li>优先级：手动触发先于定时触发，同优先级先进先出</li>
+ *     <li>有界：排队数达到上限时拒绝新任务</li>
+ *     <li>去重：相同去重键的任务还在排队时不重复入队，直接返回排队中的那一次；
+ *     定时触发还会跳过执行中的同一任务，同一任务不会在多个工作线程上同时执行</li>
+ * </ul>
+ * 运行状态按 runId 保留一段时间（Caffeine，写入后过期），供状态接口查询。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+@Component
+public class TaskRunQueue {
+
+    public static final String ACCEPTED = "accepted";
+    public static final String DUPLICATE = "duplicate";
+    public static final String REJECTED = "rejected";
+
+    @Value("${app.task.run-queue.workers:8}")
+    private int workers;
+
+    @Value("${app.task.run-queue.capacity:100}")
+    private int capacity;
+
+    private final PriorityBlockingQueue<TaskRun> queue = new PriorityBlockingQueue<>();
+    private final Map<String, TaskRun> pendingByKey = new HashMap<>();
+    private final Map<String, TaskRun> runningByKey = new HashMap<>();
+    private final Object lock = new Object();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<String, TaskRun> runs;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public TaskRunQueue(@Value("${app.task.run-queue.retention-minutes:30}") long retentionMinutes,
+                        @Value("${app.task.run-queue.retention-max-size:1000}") long retentionMaxSize) {
+        this.runs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .maximumSize(retentionMaxSize)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::workLoop, "task-run-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workerThreads.add(thread);
+        }
+    }
+
+    /**
+     * 提交结果
+     *
+     * @param run 本次提交的运行；重复时为排队中（或执行中）的那一次，被拒绝时为null
+     * @param outcome accepted / duplicate / rejected
+     */
+    public record Submission(TaskRun run, String outcome) {
+
+        public boolean isAccepted() {
+            return ACCEPTED.equals(outcome);
+        }
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param dedupKey 去重键，相同键的任务排队中时不重复入队
+     * @param priority 优先级
+     * @param description 描述
+     * @param body 执行内容，返回值作为运行结果
+     * @param onComplete 运行结束（执行完成或排队中被取消）后的回调，可为空；重复或被拒绝时不会调用
+     */
+    public Submission submit(String dedupKey, TaskRun.Priority priority, String description,
+                             Callable<Object> body, Consumer<TaskRun> onComplete) {
+        return submit(dedupKey, priority, description, body, onComplete, false);
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param dedupRunning 为true时相同键的任务执行中也视为重复（定时触发使用，上一次未结束时跳过本次）
+     * @see #submit(String, TaskRun.Priority, String, Callable, Consumer)
+     */
+    public Submission submit(String dedupKey, TaskRun.Priority priority, String description,
+                             Callable<Object> body, Consumer<TaskRun> onComplete, boolean dedupRunning) {
+        synchronized (lock) {
+            TaskRun pending = pendingByKey.get(dedupKey);
+            if (pending == null && dedupRunning) {
+                pending = runningByKey.get(dedupKey);
+            }
+            if (pending != null) {
+                duplicates.incrementAndGet();
+                return new Submission(pending, DUPLICATE);
+            }
+            if (!running || queue.size() >= capacity) {
+                rejected.incrementAndGet();
+                return new Submission(null, REJECTED);
+            }
+            TaskRun run = new TaskRun(UUID.randomUUID().toString().replace("-", ""), dedupKey, priority,
+                    sequence.incrementAndGet(), description, body, onComplete);
+            pendingByKey.put(dedupKey, run);
+            runs.put(run.getRunId(), run);
+            queue.add(run);
+            accepted.incrementAndGet();
+            return new Submission(run, ACCEPTED);
+        }
+    }
+
+    /**
+     * 取消运行：排队中的直接出队，执行中的中断执行线程
+     *
+     * @param reason 取消原因，作为最终状态（cancelled / timeout）
+     * @return 是否取消了排队中的运行（此时运行不会再执行）
+     */
+    public boolean cancel(TaskRun run, String reason) {
+        boolean dequeued;
+        synchronized (lock) {
+            if (run.isFinished()) {
+                return false;
+            }
+            run.markCancelled(reason);
+            if (TaskRun.QUEUED.equals(run.getStatus())) {
+                queue.remove(run);
+                pendingByKey.remove(run.getDedupKey(), run);
+                run.finish(null, null);
+                dequeued = true;
+            } else {
+                Thread runner = run.runner;
+                if (runner != null) {
+                    runner.interrupt();
+                }
+                dequeued = false;
+            }
+        }
+        if (dequeued) {
+            run.complete();
+        }
+        return dequeued;
+    }
+
+    private void workLoop() {
+        while (running) {
+            TaskRun run;
+            try {
+                run = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (run == null) {
+                continue;
+            }
+            synchronized (lock) {
+                pendingByKey.remove(run.getDedupKey(), run);
+                if (!TaskRun.QUEUED.equals(run.getStatus())) {
+                    continue;
+                }
+                run.markRunning(Thread.currentThread());
+                runningByKey.put(run.getDedupKey(), run);
+            }
+            execute(run);
+        }
+    }
+
+    private void execute(TaskRun run) {
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = run.getBody().call();
+        } catch (Throwable e) {
+            error = e;
+            log.warn("任务运行 {} 执行异常：{}", run.getRunId(), e.getMessage());
+        }
+        synchronized (lock) {
+            runningByKey.remove(run.getDedupKey(), run);
+            run.finish(result, error);
+            // 清除取消时设置的中断标记，避免影响该线程执行的下一个任务
+            Thread.interrupted();
+        }
+        try {
+            run.complete();
+        } catch (Exception e) {
+            log.warn("任务运行 {} 完成回调异常：{}", run.getRunId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 按 runId 查询运行状态，超过保留时间后返回null
+     */
+    public TaskRun getRun(String runId) {
+        return runs.getIfPresent(runId);
+    }
+
+    /**
+     * 队列状态和最近的运行
+     *
+     * @param limit 返回的最近运行数量
+     */
+    public Map<String, Object> getStats(int limit) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers);
+        stats.put("capacity", capacity);
+        stats.put("queued", queue.size());
+        stats.put("accepted", accepted.get());
+        stats.put("duplicates", duplicates.get());
+        stats.put("rejected", rejected.get());
+        stats.put("recentRuns", runs.asMap().values().stream()
+                .sorted(Comparator.comparing(TaskRun::getSubmittedAt).reversed())
+                .limit(limit)
+                .map(TaskRun::toMap)
+                .toList());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread thread : workerThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("应用关闭时仍有 {} 个任务未执行", queue.size());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.personal.task.service.trigger;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * 错峰触发器
+ * 在cron表达式的标称触发时间上加一个按任务代码确定的固定相位偏移（stagger），再加一个随机抖动（jitter），
+ * 避免多个任务在同一秒集中触发。下一次触发时间从上一次的标称时间推算，偏移和抖动不会累积漂移；
+ * 暂停、时钟跳变或执行时间超过周期后，从当前时间（换算到标称时间轴）推算，跳过错过的触发而不是集中补触发。
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+public class JitteredTrigger implements Trigger {
+
+    private final CronExpression cron;
+    private final ZoneId zone;
+    private final long offsetMs;
+    private final long jitterMs;
+
+    /**
+     * 上一次的标称触发时间
+     */
+    private Instant lastNominal;
+
+    /**
+     * @param cronExpression cron表达式
+     * @param key 计算相位偏移的键（任务代码）
+     * @param staggerWindowMs 相位偏移范围，偏移为 [0, staggerWindowMs) 内由键确定的值，0表示不偏移
+     * @param jitterMs 随机抖动范围，每次触发在 [0, jitterMs) 内随机，0表示不抖动
+     */
+    public JitteredTrigger(String cronExpression, String key, long staggerWindowMs, long jitterMs) {
+        this.cron = CronExpression.parse(cronExpression);
+        this.zone = ZoneId.systemDefault();
+        this.offsetMs = phaseOffset(key, staggerWindowMs);
+        this.jitterMs = Math.max(0, jitterMs);
+    }
+
+    @Override
+    public synchronized Instant nextExecution(TriggerContext triggerContext) {
+        // 当前时间换算到标称时间轴（减去相位偏移），与上一次标称时间取较晚者
+        Instant nominalNow = triggerContext.getClock().instant().minusMillis(offsetMs);
+        Instant from = lastNominal != null && lastNominal.isAfter(nominalNow) ? lastNominal : nominalNow;
+        ZonedDateTime next = cron.next(from.atZone(zone));
+        if (next == null) {
+            return null;
+        }
+        lastNominal = next.toInstant();
+        long jitter = jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs) : 0;
+        return lastNominal.plusMillis(offsetMs + jitter);
+    }
+
+    /**
+     * 预览之后若干次的触发时间（不含随机抖动，实际触发时间在 [返回值, 返回值 + jitterMs) 内）
+     */
+    public List<Instant> preview(Instant from, int count) {
+        List<Instant> result = new ArrayList<>(count);
+        ZonedDateTime cursor = from.minusMillis(offsetMs).atZone(zone);
+        for (int i = 0; i < count; i++) {
+            cursor = cron.next(cursor);
+            if (cursor == null) {
+                break;
+            }
+            result.add(cursor.toInstant().plusMillis(offsetMs));
+        }
+        return result;
+    }
+
+    public long getOffsetMs() {
+        return offsetMs;
+    }
+
+    public long getJitterMs() {
+        return jitterMs;
+    }
+
+    /**
+     * 由键确定的相位偏移：各节点、每次重启结果一致
+     */
+    static long phaseOffset(String key, long windowMs) {
+        if (windowMs <= 0) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue() % windowMs;
+    }
+}
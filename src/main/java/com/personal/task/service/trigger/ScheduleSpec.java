@@ -0,0 +1,64 @@
+package com.personal.task.service.trigger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.task.entity.ScheduledTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+
+/**
+ * 任务的调度方式
+ * 默认值来自 app.task.scheduler.*，可在任务的 executor_params 中用
+ * scheduleMode / staggerWindowMs / jitterMs 覆盖。
+ * <ul>
+ *     <li>exact：严格按cron表达式触发</li>
+ *     <li>stagger：按任务代码加固定相位偏移</li>
+ *     <li>jitter：固定相位偏移 + 每次随机抖动</li>
+ * </ul>
+ *
+ * @author tendollar
+ * @since 2026-10-19
+ */
+@Slf4j
+public record ScheduleSpec(String cronExpression, String mode, long staggerWindowMs, long jitterMs) {
+
+    public static final String MODE_EXACT = "exact";
+    public static final String MODE_STAGGER = "stagger";
+    public static final String MODE_JITTER = "jitter";
+
+    /**
+     * 解析任务的调度方式
+     */
+    public static ScheduleSpec of(ScheduledTask task, ScheduleSpec defaults, ObjectMapper objectMapper) {
+        String mode = defaults.mode();
+        long staggerWindowMs = defaults.staggerWindowMs();
+        long jitterMs = defaults.jitterMs();
+        String params = task.getExecutorParams();
+        if (params != null && !params.isBlank()) {
+            try {
+                JsonNode node = objectMapper.readTree(params);
+                mode = node.path("scheduleMode").asText(mode);
+                staggerWindowMs = node.path("staggerWindowMs").asLong(staggerWindowMs);
+                jitterMs = node.path("jitterMs").asLong(jitterMs);
+            } catch (Exception e) {
+                log.warn("任务 {} 的executor_params不是有效JSON，使用默认调度方式：{}", task.getTaskCode(), e.getMessage());
+            }
+        }
+        return new ScheduleSpec(task.getCronExpression(), mode, staggerWindowMs, jitterMs);
+    }
+
+    /**
+     * 按调度方式创建触发器
+     *
+     * @param key 计算相位偏移的键（任务代码）
+     * @throws IllegalArgumentException cron表达式无效
+     */
+    public Trigger createTrigger(String key) {
+        return switch (mode) {
+            case MODE_STAGGER -> new JitteredTrigger(cronExpression, key, staggerWindowMs, 0);
+            case MODE_JITTER -> new JitteredTrigger(cronExpression, key, staggerWindowMs, jitterMs);
+            default -> new CronTrigger(cronExpression);
+        };
+    }
+}